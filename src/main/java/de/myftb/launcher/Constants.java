@@ -31,6 +31,8 @@ public class Constants {
 
     public static final int connectTimeout = 30000;
     public static final int socketTimeout = 90000;
+    public static final int resourceConnectTimeout = 5000;
+    public static final int resourceSocketTimeout = 10000;
 
     public static final String[] repositories = new String[] {
             "https://repo1.maven.org/maven2/",
@@ -0,0 +1,77 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher;
+
+/**
+ * Kompaktes Histogramm mit exponentiell wachsenden Buckets, z.B. für Zeitmessungen in Millisekunden.
+ * Perzentile sind auf die Bucketgrenzen gerundet, der relative Fehler liegt bei maximal 20%.
+ */
+public class Histogram {
+    private static final double lowestBound = 0.01;
+    private static final double growth = 1.2;
+    private static final int bucketCount = 96;
+
+    private final long[] buckets = new long[Histogram.bucketCount];
+    private long count = 0;
+    private double sum = 0;
+    private double max = 0;
+
+    public synchronized void record(double value) {
+        int index = value <= Histogram.lowestBound ? 0
+                : (int) Math.ceil(Math.log(value / Histogram.lowestBound) / Math.log(Histogram.growth));
+        this.buckets[Math.min(index, Histogram.bucketCount - 1)]++;
+        this.count++;
+        this.sum += value;
+        this.max = Math.max(this.max, value);
+    }
+
+    public synchronized double getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(percentile * this.count);
+        long seen = 0;
+        for (int i = 0; i < Histogram.bucketCount; i++) {
+            seen += this.buckets[i];
+            if (seen >= target) {
+                return Math.min(Histogram.lowestBound * Math.pow(Histogram.growth, i), this.max);
+            }
+        }
+
+        return this.max;
+    }
+
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+    public synchronized double getSum() {
+        return this.sum;
+    }
+
+    public synchronized double getMean() {
+        return this.count == 0 ? 0 : this.sum / this.count;
+    }
+
+    public synchronized double getMax() {
+        return this.max;
+    }
+
+}
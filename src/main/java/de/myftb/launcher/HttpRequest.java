@@ -39,6 +39,21 @@ public class HttpRequest {
         return HttpRequest.configure(Request.Get(url));
     }
 
+    /**
+     * Anfrage mit kurzen Timeouts für Inhalte, auf die die Oberfläche wartet, z.B. Bilder.
+     */
+    public static Request getResource(String url) {
+        return HttpRequest.get(url)
+                .connectTimeout(Constants.resourceConnectTimeout)
+                .socketTimeout(Constants.resourceSocketTimeout);
+    }
+
+    public static Request getResource(URI url) {
+        return HttpRequest.get(url)
+                .connectTimeout(Constants.resourceConnectTimeout)
+                .socketTimeout(Constants.resourceSocketTimeout);
+    }
+
     public static Request post(String url) {
         return HttpRequest.configure(Request.Post(url));
     }
@@ -27,11 +27,25 @@ import com.mojang.authlib.Agent;
 import com.mojang.authlib.UserAuthentication;
 import com.mojang.authlib.exceptions.AuthenticationException;
 
+import de.myftb.launcher.cache.DiskCache;
+import de.myftb.launcher.cef.ipc.ProgressPublisher;
 import de.myftb.launcher.cef.ipc.TopicMessageHandler;
+import de.myftb.launcher.launch.GameInstance;
+import de.myftb.launcher.launch.GcAdvisor;
+import de.myftb.launcher.launch.InstanceRegistry;
+import de.myftb.launcher.launch.InstanceSizes;
 import de.myftb.launcher.launch.LaunchHelper;
 import de.myftb.launcher.launch.LaunchMinecraft;
 import de.myftb.launcher.launch.ManifestHelper;
+import de.myftb.launcher.launch.ModIndex;
+import de.myftb.launcher.launch.ResourceMonitor;
+import de.myftb.launcher.launch.SessionLogStore;
+import de.myftb.launcher.models.launcher.GcSummary;
+import de.myftb.launcher.models.launcher.JvmProfile;
+import de.myftb.launcher.models.launcher.ModInfo;
+import de.myftb.launcher.models.launcher.PackSummary;
 import de.myftb.launcher.models.launcher.Platform;
+import de.myftb.launcher.models.launcher.ResourceSummary;
 import de.myftb.launcher.models.modpacks.ModpackManifest;
 import de.myftb.launcher.models.modpacks.ModpackManifestList;
 
@@ -39,19 +53,32 @@ import java.awt.Desktop;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.swing.JFileChooser;
@@ -63,8 +90,12 @@ import org.slf4j.LoggerFactory;
 
 public class IpcTopics {
     private static final Logger log = LoggerFactory.getLogger(IpcTopics.class);
+    private static final Gson gson = new Gson();
+    private static final int packPageSize = 50;
+    private static final int modPageSize = 100;
     private final Launcher launcher;
     private final TopicMessageHandler ipcHandler;
+    private final Map<String, AtomicBoolean> installCancelTokens = new ConcurrentHashMap<>();
     private JsonArray posts = null;
 
     public IpcTopics(Launcher launcher, TopicMessageHandler ipcHandler) {
@@ -73,6 +104,10 @@ public class IpcTopics {
     }
 
     void onRendererArrived(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        callback.success(this.getRendererState());
+    }
+
+    private JsonObject getRendererState() {
         JsonObject cbResponse = new JsonObject();
 
         this.ipcHandler.send("update_profiles", this.launcher.getConfig().getGameProfiles());
@@ -100,7 +135,7 @@ public class IpcTopics {
             }
         }
 
-        callback.success(cbResponse);
+        return cbResponse;
     }
 
     void onMcLogin(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
@@ -181,47 +216,108 @@ public class IpcTopics {
 
     void onRequestInstallableModpacks(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
         try {
-            List<ModpackManifest> installedPacks = ManifestHelper.getInstalledModpacks();
-
-            ModpackManifestList manifestList = new ModpackManifestList();
-            manifestList.setPackages(this.launcher.getRemotePacks().getPackages().stream()
-                    .filter(manifestRef -> installedPacks.stream()
-                            .noneMatch(manifest -> manifest.getName().equals(manifestRef.getName())))
-                    .collect(Collectors.toList())
-            );
-
-            callback.success(manifestList);
+            callback.success(IpcTopics.getInstallablePacks(ManifestHelper.getInstalledModpacks(), this.launcher.getRemotePacks()));
         } catch (Exception e) {
             callback.failure(e.getLocalizedMessage());
             IpcTopics.log.warn("Fehler beim Abfragen der Packliste", e);
         }
     }
 
+    private static ModpackManifestList getInstallablePacks(List<ModpackManifest> installedPacks, ModpackManifestList remotePacks) {
+        Set<String> installedNames = installedPacks.stream().map(ModpackManifest::getName).collect(Collectors.toSet());
+        ModpackManifestList manifestList = new ModpackManifestList();
+        manifestList.setPackages(remotePacks.getPackages().stream()
+                .filter(manifestRef -> !installedNames.contains(manifestRef.getName()))
+                .collect(Collectors.toList())
+        );
+
+        return manifestList;
+    }
+
     void onRequestInstalledModpacks(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        int offset = data != null && data.has("offset") ? data.get("offset").getAsInt() : 0;
+        int limit = data != null && data.has("limit") ? data.get("limit").getAsInt() : IpcTopics.packPageSize;
+
+        callback.success(IpcTopics.getInstalledPage(ManifestHelper.getInstalledModpacks(), offset, limit, callback::isCanceled));
+    }
+
+    private static Map<String, Object> getInstalledPage(List<ModpackManifest> installedPacks, int offset, int limit, BooleanSupplier canceled) {
+        List<ModpackManifest> sortedPacks = new ArrayList<>(installedPacks);
+        sortedPacks.sort(Comparator.comparing(ModpackManifest::getTitle, String.CASE_INSENSITIVE_ORDER));
+
+        // Die Größenermittlung liest ggf. ganze Instanzverzeichnisse ein und wird bei Abbruch nicht fortgesetzt
+        List<PackSummary> summaries = new ArrayList<>();
+        for (int i = Math.max(0, offset); i < sortedPacks.size() && summaries.size() < limit && !canceled.getAsBoolean(); i++) {
+            summaries.add(ManifestHelper.getSummary(sortedPacks.get(i)));
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("packages", summaries);
+        page.put("offset", offset);
+        page.put("total", sortedPacks.size());
+        return page;
+    }
+
+    void onRequestRecentPacks(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        callback.success(this.getRecentPacks(ManifestHelper.getInstalledModpacks()));
+    }
+
+    private Map<String, Object> getRecentPacks(List<ModpackManifest> installedPacks) {
+        List<PackSummary> recentPacks = this.launcher.getConfig().getLastPlayedPacks(installedPacks).stream()
+                .map(name -> installedPacks.stream().filter(manifest -> name.equals(manifest.getName())).findFirst().orElse(null))
+                .filter(Objects::nonNull)
+                .map(ManifestHelper::getSummary)
+                .collect(Collectors.toList());
+
+        return Collections.singletonMap("packages", recentPacks);
+    }
+
+    void onRequestModpackManifest(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpack(data.get("pack").getAsString());
+
+        if (!modpack.isPresent()) {
+            callback.failure("Das Modpack konnte nicht gefunden werden");
+            return;
+        }
+
         try {
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.addProperty("packages", LaunchHelper.mapper.writeValueAsString(ManifestHelper.getInstalledModpacks()));
-            callback.success(jsonObject);
+            callback.successRaw(LaunchHelper.mapper.writeValueAsString(modpack.get()));
         } catch (JsonProcessingException e) {
-            callback.failure("Die Modpacks konnten nicht angezeigt werden");
+            callback.failure("Das Modpack-Manifest konnte nicht gelesen werden");
             IpcTopics.log.warn("Fehler bei der Modpack-Serialisierung", e);
         }
     }
 
-    void onRequestRecentPacks(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+    void onRequestMods(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpack(data.get("pack").getAsString());
+
+        if (!modpack.isPresent()) {
+            callback.failure("Das Modpack konnte nicht gefunden werden");
+            return;
+        }
+
+        String query = data.has("query") ? data.get("query").getAsString() : "";
+        String loader = data.has("loader") ? data.get("loader").getAsString() : null;
+        int offset = data.has("offset") ? data.get("offset").getAsInt() : 0;
+        int limit = data.has("limit") ? data.get("limit").getAsInt() : IpcTopics.modPageSize;
+
         try {
-            JsonObject jsonObject = new JsonObject();
-            List<ModpackManifest> installedPacks = ManifestHelper.getInstalledModpacks();
-            List<ModpackManifest> recentPacks = Launcher.getInstance().getConfig().getLastPlayedPacks().stream()
-                    .map(name -> installedPacks.stream().filter(manifest -> name.equals(manifest.getName())).findFirst().orElse(null))
-                    .filter(Objects::nonNull)
+            List<ModInfo> mods = ModIndex.getMods(modpack.get()).stream()
+                    .filter(mod -> query.isEmpty() || mod.matches(query))
+                    .filter(mod -> loader == null || loader.equals(mod.getLoader()))
                     .collect(Collectors.toList());
 
-            jsonObject.addProperty("packages", LaunchHelper.mapper.writeValueAsString(recentPacks));
-            callback.success(jsonObject);
-        } catch (JsonProcessingException e) {
-            callback.failure("Die Modpacks konnten nicht angezeigt werden");
-            IpcTopics.log.warn("Fehler bei der Modpack-Serialisierung", e);
+            int from = Math.min(Math.max(0, offset), mods.size());
+            int to = from + Math.min(Math.max(0, limit), mods.size() - from);
+
+            Map<String, Object> page = new HashMap<>();
+            page.put("mods", new ArrayList<>(mods.subList(from, to)));
+            page.put("offset", from);
+            page.put("total", mods.size());
+            callback.success(page);
+        } catch (InterruptedException | ExecutionException e) {
+            callback.failure("Die Modliste konnte nicht gelesen werden");
+            IpcTopics.log.warn("Fehler beim Einlesen der Mods", e);
         }
     }
 
@@ -237,16 +333,18 @@ public class IpcTopics {
                     .map(JsonElement::getAsString)
                     .collect(Collectors.toList());
             IpcTopics.log.info("Installiere " + manifest.getTitle() + " mit Features: " + selectedFeatures);
+            AtomicBoolean canceled = new AtomicBoolean();
+            callback.onCancel(() -> canceled.set(true));
+            this.installCancelTokens.put(manifest.getName(), canceled);
 
-            boolean success = LaunchMinecraft.install(manifest, selectedFeatures, (total, finished, failed) -> {
-                JsonObject jsonObject = new JsonObject();
-                JsonObject status = new JsonObject();
-                status.addProperty("total", total);
-                status.addProperty("finished", finished);
-                status.addProperty("failed", failed);
-                jsonObject.add("installing", status);
-                callback.success(jsonObject);
-            });
+            ProgressPublisher progressPublisher = new ProgressPublisher(callback, this.launcher.getConfig().getProgressUpdateRate());
+            boolean success;
+            try {
+                success = LaunchMinecraft.install(manifest, selectedFeatures, progressPublisher, canceled::get);
+            } finally {
+                this.installCancelTokens.remove(manifest.getName(), canceled);
+                progressPublisher.finish();
+            }
 
             JsonObject jsonObject = new JsonObject();
             jsonObject.addProperty("installed", true);
@@ -272,9 +370,7 @@ public class IpcTopics {
     }
 
     void onLaunchModpack(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
-        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpacks().stream()
-                .filter(manifest -> manifest.getName().equals(data.get("modpack").getAsString()))
-                .findFirst();
+        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpack(data.get("modpack").getAsString());
 
         if (!modpack.isPresent()) {
             callback.failure("Das Modpack konnte nicht gefunden werden");
@@ -313,11 +409,29 @@ public class IpcTopics {
         }
     }
 
+    void onPrespawnModpack(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpack(data.get("modpack").getAsString());
+
+        if (!modpack.isPresent()) {
+            callback.failure("Das Modpack konnte nicht gefunden werden");
+            return;
+        }
+
+        try {
+            JsonObject response = new JsonObject();
+            response.addProperty("prespawned", LaunchMinecraft.prespawn(modpack.get()));
+            callback.success(response);
+        } catch (LaunchMinecraft.ModpackOutdatedException e) {
+            callback.failure("Das Modpack ist nicht aktuell");
+        } catch (IOException e) {
+            callback.failure("Das Modpack konnte nicht vorgestartet werden");
+            IpcTopics.log.warn("Das Modpack " + modpack.get().getName() + " konnte nicht vorgestartet werden", e);
+        }
+    }
+
     void onModpackContextMenuClick(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
         int index = data.get("index").getAsInt();
-        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpacks().stream()
-                .filter(manifest -> manifest.getName().equals(data.get("pack").getAsString()))
-                .findFirst();
+        Optional<ModpackManifest> modpack = ManifestHelper.getInstalledModpack(data.get("pack").getAsString());
 
         if (!modpack.isPresent()) {
             callback.failure("Das Modpack konnte nicht gefunden werden");
@@ -342,6 +456,8 @@ public class IpcTopics {
                         .sorted(Comparator.reverseOrder())
                         .map(Path::toFile)
                         .forEach(File::delete);
+                InstanceRegistry.refresh(modpack.get().getName());
+                InstanceSizes.update(modpack.get().getName());
                 callback.success(new JsonObject());
             } catch (IOException e) {
                 callback.failure("Das Modpack " + modpack.get().getName() + " konnte nicht gelöscht werden");
@@ -386,9 +502,11 @@ public class IpcTopics {
             try {
                 Platform platform = Platform.getPlatform();
                 boolean needsIco = platform == Platform.WINDOWS;
-                File modpackImage = new File(this.launcher.getSaveSubDirectory("cache"),
-                        UUID.randomUUID().toString() + (needsIco ? ".ico" : ".png"));
+                String iconName = modpack.get().getName() + (needsIco ? ".ico" : ".png");
+                File modpackImage = this.launcher.getDiskCache().getFile(DiskCache.shortcuts, iconName);
+                modpackImage.getParentFile().mkdirs();
                 modpack.get().saveModpackLogo(modpackImage);
+                this.launcher.getDiskCache().commit(DiskCache.shortcuts, iconName);
 
                 if (platform == Platform.WINDOWS) {
                     ShellLink link = ShellLink.createLink(executablePath)
@@ -434,32 +552,100 @@ public class IpcTopics {
     }
 
     void onRequestPosts(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        try {
+            callback.success(this.getPosts());
+        } catch (IOException e) {
+            callback.failure("Die Beiträge konnten nicht abgerufen werdne");
+            IpcTopics.log.warn("Fehler beim Abrufen der Website Posts", e);
+        }
+    }
+
+    private JsonObject getPosts() throws IOException {
         if (this.posts == null) {
-            try {
-                HttpResponse response = HttpRequest.get(Constants.postsApi)
-                        .execute()
-                        .returnResponse();
+            HttpResponse response = HttpRequest.get(Constants.postsApi)
+                    .execute()
+                    .returnResponse();
 
-                this.posts = new Gson().fromJson(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8), JsonElement.class)
-                        .getAsJsonArray();
-            } catch (IOException e) {
-                callback.failure("Die Beiträge konnten nicht abgerufen werdne");
-                IpcTopics.log.warn("Fehler beim Abrufen der Website Posts", e);
-                return;
-            }
+            this.posts = new Gson().fromJson(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8), JsonElement.class)
+                    .getAsJsonArray();
         }
 
         JsonObject jsonObject = new JsonObject();
         jsonObject.add("posts", this.posts);
-        callback.success(jsonObject);
+        return jsonObject;
+    }
+
+    /**
+     * Sammelt alle Daten, die die UI für die erste Darstellung benötigt, parallel in einer einzigen Antwort.
+     * Die installierten Modpacks werden dabei nur einmal eingelesen. Schlägt ein Teil fehl, wird dessen Fehlermeldung unter
+     * {@code errors} zurückgegeben, die übrigen Teile bleiben nutzbar.
+     */
+    void onBootstrap(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Executor executor = this.ipcHandler.getDispatcher().asExecutor("bootstrap");
+        Map<String, CompletableFuture<?>> parts = new LinkedHashMap<>();
+        try {
+            CompletableFuture<List<ModpackManifest>> installedPacks = CompletableFuture.supplyAsync(ManifestHelper::getInstalledModpacks, executor);
+            CompletableFuture<ModpackManifestList> remotePacks = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.launcher.getRemotePacks();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+
+            parts.put("renderer", CompletableFuture.supplyAsync(this::getRendererState, executor));
+            parts.put("settings", CompletableFuture.completedFuture(this.launcher.getConfig().toJson()));
+            parts.put("installed", installedPacks.thenApply(packs -> IpcTopics.getInstalledPage(packs, 0, IpcTopics.packPageSize, callback::isCanceled)));
+            parts.put("recent", installedPacks.thenApply(this::getRecentPacks));
+            parts.put("installable", installedPacks.thenCombine(remotePacks, IpcTopics::getInstallablePacks));
+            parts.put("posts", CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.getPosts();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            callback.failure("Der Launcher ist gerade ausgelastet, bitte versuche es gleich erneut");
+            return;
+        }
+        callback.onCancel(() -> parts.values().forEach(part -> part.cancel(true)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        parts.forEach((name, part) -> {
+            try {
+                response.put(name, part.join());
+            } catch (CancellationException e) {
+                errors.put(name, "Abgebrochen");
+            } catch (CompletionException e) {
+                IpcTopics.log.warn("Fehler beim Laden von " + name + " für die Startansicht", e.getCause());
+                errors.put(name, e.getCause().getLocalizedMessage());
+            }
+        });
+
+        response.put("errors", errors);
+        callback.success(response);
     }
 
     void onRequestConsole(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
-        this.ipcHandler.sendString("console_data", LaunchMinecraft.getLog());
+        Optional<GameInstance> instance = this.launcher.getProcessSupervisor().resolveInstance(data);
+        if (!instance.isPresent()) {
+            return;
+        }
+
+        this.launcher.getProcessSupervisor().watch(instance.get());
+        instance.get().getLogCollector().replay();
     }
 
     void onUploadLog(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
-        String log = LaunchMinecraft.getLog();
+        Optional<GameInstance> instance = this.launcher.getProcessSupervisor().resolveInstance(data);
+        if (!instance.isPresent()) {
+            callback.failure("Es wurde noch kein Modpack gestartet");
+            return;
+        }
+
+        String log = instance.get().getLogCollector().getLog();
 
         if (Desktop.isDesktopSupported() && Desktop.getDesktop().isSupported(Desktop.Action.BROWSE)) {
             try {
@@ -476,11 +662,142 @@ public class IpcTopics {
     }
 
     void onKillMinecraft(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
-        LaunchMinecraft.killMinecraft();
+        this.launcher.getProcessSupervisor().resolveInstance(data).ifPresent(GameInstance::kill);
+    }
+
+    void onRequestInstances(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        callback.success(this.launcher.getProcessSupervisor().toJson());
+    }
+
+    void onRequestResourceSamples(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<GameInstance> instance = this.launcher.getProcessSupervisor().resolveInstance(data);
+        if (!instance.isPresent()) {
+            callback.failure("Das Modpack wurde nicht gestartet");
+            return;
+        }
+
+        JsonObject response = new JsonObject();
+        response.addProperty("instance", instance.get().getId());
+        response.add("samples", IpcTopics.gson.toJsonTree(instance.get().getResourceMonitor()
+                .map(ResourceMonitor::getSamples)
+                .orElse(Collections.emptyList())));
+        callback.success(response);
+    }
+
+    void onRequestResourceSummaries(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        JsonArray packs = new JsonArray();
+        for (ModpackManifest manifest : ManifestHelper.getInstalledModpacks()) {
+            List<ResourceSummary> summaries = ResourceMonitor.getSummaries(manifest);
+            if (summaries.isEmpty()) {
+                continue;
+            }
+
+            JsonObject packObject = new JsonObject();
+            packObject.addProperty("name", manifest.getName());
+            packObject.addProperty("title", manifest.getTitle());
+            packObject.add("sessions", IpcTopics.gson.toJsonTree(summaries));
+            packs.add(packObject);
+        }
+
+        JsonObject response = new JsonObject();
+        response.add("packs", packs);
+        callback.success(response);
+    }
+
+    void onRequestLogPage(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<SessionLogStore> logStore = this.launcher.getProcessSupervisor().resolveInstance(data)
+                .flatMap(GameInstance::getLogStore);
+        if (!logStore.isPresent()) {
+            callback.failure("Für dieses Modpack liegt kein vollständiges Log vor");
+            return;
+        }
+
+        try {
+            long from = data.get("from").getAsLong();
+            JsonArray lines = new JsonArray();
+            logStore.get().readLines(from, Math.min(data.get("count").getAsInt(), 1000)).forEach(lines::add);
+
+            JsonObject response = new JsonObject();
+            response.addProperty("total", logStore.get().getLineCount());
+            response.addProperty("from", from);
+            response.add("lines", lines);
+            callback.success(response);
+        } catch (IOException e) {
+            callback.failure("Das Log konnte nicht gelesen werden");
+            IpcTopics.log.warn("Fehler beim Lesen des Logs", e);
+        }
+    }
+
+    void onSearchLog(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<SessionLogStore> logStore = this.launcher.getProcessSupervisor().resolveInstance(data)
+                .flatMap(GameInstance::getLogStore);
+        if (!logStore.isPresent()) {
+            callback.failure("Für dieses Modpack liegt kein vollständiges Log vor");
+            return;
+        }
+
+        try {
+            long from = data.has("from") ? data.get("from").getAsLong() : 0;
+            JsonArray matches = new JsonArray();
+            for (SessionLogStore.Match match : logStore.get().search(data.get("query").getAsString(), from, 100, callback::isCanceled)) {
+                JsonObject matchObject = new JsonObject();
+                matchObject.addProperty("line", match.getLine());
+                matchObject.addProperty("text", match.getText());
+                matches.add(matchObject);
+            }
+
+            JsonObject response = new JsonObject();
+            response.add("matches", matches);
+            callback.success(response);
+        } catch (IOException e) {
+            callback.failure("Das Log konnte nicht durchsucht werden");
+            IpcTopics.log.warn("Fehler beim Durchsuchen des Logs", e);
+        }
     }
 
     void onCancelDownload(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
-        LaunchMinecraft.cancelDownload = true;
+        if (data != null && data.has("pack")) {
+            Optional.ofNullable(this.installCancelTokens.get(data.get("pack").getAsString())).ifPresent(canceled -> canceled.set(true));
+        } else {
+            this.installCancelTokens.values().forEach(canceled -> canceled.set(true));
+        }
+    }
+
+    void onRequestJvmProfiles(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        JsonArray profiles = new JsonArray();
+        for (JvmProfile profile : JvmProfile.values()) {
+            JsonObject profileObject = new JsonObject();
+            profileObject.addProperty("id", profile.name());
+            profileObject.addProperty("name", profile.getDisplayName());
+            profiles.add(profileObject);
+        }
+
+        JsonObject response = new JsonObject();
+        response.add("profiles", profiles);
+        response.addProperty("selected", this.launcher.getConfig().getJvmProfile(data.get("pack").getAsString()).name());
+        callback.success(response);
+    }
+
+    void onSetJvmProfile(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        try {
+            JvmProfile profile = JvmProfile.valueOf(data.get("profile").getAsString());
+            this.launcher.getConfig().setJvmProfile(data.get("pack").getAsString(), profile);
+            this.launcher.saveConfig();
+            callback.success(new JsonObject());
+        } catch (IllegalArgumentException e) {
+            callback.failure("Unbekanntes JVM-Profil");
+        }
+    }
+
+    void onRequestGcSummary(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        Optional<GcSummary> summary = ManifestHelper.getInstalledModpack(data.get("pack").getAsString())
+                .flatMap(GcAdvisor::getSummary);
+
+        if (summary.isPresent()) {
+            callback.success(summary.get());
+        } else {
+            callback.failure("Für dieses Modpack liegt noch keine GC-Auswertung vor");
+        }
     }
 
     void onRequestAutoconfigs(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
@@ -501,4 +818,14 @@ public class IpcTopics {
         callback.success(response);
     }
 
+    void onRequestCacheStats(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        JsonObject stats = this.launcher.getDiskCache().getStats();
+        stats.add("manifests", ManifestHelper.getCacheStats());
+        callback.success(stats);
+    }
+
+    void onRequestIpcDiagnostics(JsonObject data, TopicMessageHandler.JsonQueryCallback callback) {
+        callback.success(this.ipcHandler.getDiagnostics());
+    }
+
 }
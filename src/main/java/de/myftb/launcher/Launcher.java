@@ -22,14 +22,17 @@ import com.google.gson.JsonObject;
 import com.mojang.authlib.exceptions.AuthenticationException;
 
 import de.myftb.launcher.autoconfig.AutoConfigManager;
+import de.myftb.launcher.cache.DiskCache;
 import de.myftb.launcher.cef.LauncherContextMenuHandler;
 import de.myftb.launcher.cef.LauncherRequestHandler;
 import de.myftb.launcher.cef.gui.CefFrame;
 import de.myftb.launcher.cef.ipc.TopicMessageHandler;
 import de.myftb.launcher.integration.DiscordIntegration;
 import de.myftb.launcher.integration.ModpackWebstart;
+import de.myftb.launcher.launch.InstanceRegistry;
 import de.myftb.launcher.launch.LaunchMinecraft;
 import de.myftb.launcher.launch.ManifestHelper;
+import de.myftb.launcher.launch.ProcessSupervisor;
 import de.myftb.launcher.models.launcher.LauncherConfig;
 import de.myftb.launcher.models.launcher.Platform;
 import de.myftb.launcher.models.modpacks.ModpackManifest;
@@ -73,6 +76,8 @@ public class Launcher {
     private final IpcTopics ipcTopics;
     private DiscordIntegration discordIntegration;
     private AutoConfigManager autoConfigManager;
+    private final ProcessSupervisor processSupervisor = new ProcessSupervisor();
+    private DiskCache diskCache;
     private ModpackWebstart webstartHandler;
     private LauncherConfig config;
     private ModpackManifestList modpackList;
@@ -91,6 +96,7 @@ public class Launcher {
         this.config = this.config.readConfig(this.getExecutableDirectory()); // Workaround damit Profile korrekt gelesen werden.
         this.config = this.config.readConfig(this.getExecutableDirectory()); // Zukünftig vielleicht einen Custom (De)Serializer?
         this.saveConfig();
+        this.diskCache = new DiskCache(this.getSaveSubDirectory("cache"), () -> this.config.getCacheSize() * 1024L * 1024L);
 
         this.cefApp = CefFrame.getApp();
         CefApp.CefVersion version = cefApp.getVersion();
@@ -144,30 +150,52 @@ public class Launcher {
         }
 
         this.autoConfigManager = new AutoConfigManager();
-        //this.autoConfigManager.readAll();
+        Thread autoConfigThread = new Thread(() -> {
+            try {
+                this.autoConfigManager.readAll();
+            } catch (Exception e) {
+                Launcher.log.warn("Fehler beim Einlesen der AutoConfig Optionen", e);
+            }
+        }, "AutoConfig-Index");
+        autoConfigThread.setDaemon(true);
+        autoConfigThread.start();
     }
 
     private void setupIpcCommunication() {
         this.ipcHandler.listenAsync("renderer_arrived", this.ipcTopics::onRendererArrived);
+        this.ipcHandler.listenLongRunning("bootstrap", this.ipcTopics::onBootstrap);
         this.ipcHandler.listenAsync("mc_login", this.ipcTopics::onMcLogin);
         this.ipcHandler.listenAsync("switch_profile", this.ipcTopics::onSwitchProfile);
         this.ipcHandler.listen("request_settings", this.ipcTopics::onRequestSettings);
         this.ipcHandler.listen("submit_settings", this.ipcTopics::onSubmitSettings);
         this.ipcHandler.listenAsync("open_url", this.ipcTopics::onOpenUrl);
-        this.ipcHandler.listenAsync("open_directory_browser", this.ipcTopics::onOpenDirectoryBrowser);
-        this.ipcHandler.listenAsync("request_installable_modpacks", this.ipcTopics::onRequestInstallableModpacks);
-        this.ipcHandler.listenAsync("request_installed_modpacks", this.ipcTopics::onRequestInstalledModpacks);
+        this.ipcHandler.listenLongRunning("open_directory_browser", this.ipcTopics::onOpenDirectoryBrowser);
+        this.ipcHandler.listenSerial("request_installable_modpacks", this.ipcTopics::onRequestInstallableModpacks);
+        this.ipcHandler.listenSerial("request_installed_modpacks", this.ipcTopics::onRequestInstalledModpacks);
         this.ipcHandler.listenAsync("request_recent_packs", this.ipcTopics::onRequestRecentPacks);
-        this.ipcHandler.listenAsync("install_modpack", this.ipcTopics::onInstallModpack);
-        this.ipcHandler.listenAsync("launch_modpack", this.ipcTopics::onLaunchModpack);
+        this.ipcHandler.listenAsync("request_modpack_manifest", this.ipcTopics::onRequestModpackManifest);
+        this.ipcHandler.listenSerial("request_mods", this.ipcTopics::onRequestMods);
+        this.ipcHandler.listenLongRunning("install_modpack", this.ipcTopics::onInstallModpack);
+        this.ipcHandler.listenLongRunning("launch_modpack", this.ipcTopics::onLaunchModpack);
         this.ipcHandler.listenAsync("modpack_menu_click", this.ipcTopics::onModpackContextMenuClick);
         this.ipcHandler.listenAsync("logout", this.ipcTopics::onLogout);
         this.ipcHandler.listenAsync("request_posts", this.ipcTopics::onRequestPosts);
         this.ipcHandler.listenAsync("request_console", this.ipcTopics::onRequestConsole);
         this.ipcHandler.listenAsync("upload_log", this.ipcTopics::onUploadLog);
         this.ipcHandler.listenAsync("kill_minecraft", this.ipcTopics::onKillMinecraft);
+        this.ipcHandler.listen("request_instances", this.ipcTopics::onRequestInstances);
+        this.ipcHandler.listen("request_resource_samples", this.ipcTopics::onRequestResourceSamples);
+        this.ipcHandler.listenAsync("request_resource_summaries", this.ipcTopics::onRequestResourceSummaries);
+        this.ipcHandler.listenAsync("request_log_page", this.ipcTopics::onRequestLogPage);
+        this.ipcHandler.listenSerial("search_log", this.ipcTopics::onSearchLog);
         this.ipcHandler.listenAsync("cancel_download", this.ipcTopics::onCancelDownload);
         this.ipcHandler.listenAsync("request_autoconfigs", this.ipcTopics::onRequestAutoconfigs);
+        this.ipcHandler.listen("request_jvm_profiles", this.ipcTopics::onRequestJvmProfiles);
+        this.ipcHandler.listen("set_jvm_profile", this.ipcTopics::onSetJvmProfile);
+        this.ipcHandler.listenAsync("request_gc_summary", this.ipcTopics::onRequestGcSummary);
+        this.ipcHandler.listenSerial("prespawn_modpack", this.ipcTopics::onPrespawnModpack);
+        this.ipcHandler.listen("request_cache_stats", this.ipcTopics::onRequestCacheStats);
+        this.ipcHandler.listen("request_ipc_diagnostics", this.ipcTopics::onRequestIpcDiagnostics);
     }
 
     /**
@@ -205,7 +233,7 @@ public class Launcher {
     /**
      * Speichert die aktuelle Konfiguration in die zugehörige Datei.
      */
-    void saveConfig() {
+    public void saveConfig() {
         try {
             this.config.save(this.getExecutableDirectory());
         } catch (IOException e) {
@@ -219,6 +247,7 @@ public class Launcher {
      */
     void mergeConfig(JsonObject newValues) {
         String oldPackKeys = this.config.getPackKey();
+        String oldInstallationDir = this.config.getInstallationDir();
         JsonObject current = this.config.toJson();
         newValues.entrySet().forEach(entry -> current.add(entry.getKey(), entry.getValue()));
         this.config = this.config.readConfig(current);
@@ -228,6 +257,9 @@ public class Launcher {
         if (!oldPackKeys.equals(this.config.getPackKey())) {
             this.clearCache();
         }
+        if (!oldInstallationDir.equals(this.config.getInstallationDir())) {
+            InstanceRegistry.reload();
+        }
     }
 
     void clearCache() {
@@ -352,6 +384,14 @@ public class Launcher {
         return this.discordIntegration;
     }
 
+    public ProcessSupervisor getProcessSupervisor() {
+        return this.processSupervisor;
+    }
+
+    public DiskCache getDiskCache() {
+        return this.diskCache;
+    }
+
     AutoConfigManager getAutoConfigManager() {
         return this.autoConfigManager;
     }
@@ -30,39 +30,36 @@ import de.myftb.launcher.models.modpacks.ModpackManifest;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Enumeration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 
 public class AutoConfigManager {
 
     private static final ExecutorService ioPool = LaunchHelper.getNewDaemonThreadPool();
-    private final Map<String, String> optionTranslations = new HashMap<>();
+    private final Map<String, String> optionTranslations = new ConcurrentHashMap<>();
     private final Map<String, Class<?>> optionTypes = new HashMap<>();
     private final Map<String, Constraint> optionConstraints = new HashMap<>();
-    private final Set<String> knownOptions = new HashSet<>();
+    private final TranslationIndex translationIndex;
+    private volatile Set<String> knownOptions = Collections.emptySet();
 
     public AutoConfigManager() {
+        this.translationIndex = new TranslationIndex(new File(Launcher.getInstance().getSaveSubDirectory("autoconfig"), "translations.json"));
+
         this.optionTranslations.put("invertYMouse", "Maus umkehren");
         this.optionTypes.put("invertYMouse", boolean.class);
 
@@ -124,16 +121,21 @@ public class AutoConfigManager {
         this.optionTypes.put("autoJump", boolean.class);
     }
 
+    /**
+     * Liest die Optionen aller installierten Instanzen und die passenden Übersetzungen ein. Die Übersetzungen stammen aus einem
+     * dauerhaften Index, sodass nur neue oder geänderte Jars geöffnet werden müssen.
+     */
     public void readAll() throws Exception {
-        this.readOptions();
-        this.readTranslations();
+        Set<String> options = this.readOptions();
+        this.readTranslations(options);
 
-        this.knownOptions.removeIf(option -> !this.getTranslation(option).isPresent());
-        this.knownOptions.removeIf(option -> !this.getType(option).isPresent());
+        options.removeIf(option -> !this.getTranslation(option).isPresent());
+        options.removeIf(option -> !this.getType(option).isPresent());
+        this.knownOptions = Collections.unmodifiableSet(options);
     }
 
-    public void readOptions() throws IOException {
-        this.knownOptions.clear();
+    private Set<String> readOptions() throws IOException {
+        Set<String> options = new HashSet<>();
         for (ModpackManifest manifest : ManifestHelper.getInstalledModpacks()) {
             File optionsFile = new File(manifest.getInstanceDir(), "options.txt");
             if (!optionsFile.isFile()) {
@@ -146,15 +148,17 @@ public class AutoConfigManager {
                 try {
                     Iterator<String> values = splitter.omitEmptyStrings().limit(2).split(line).iterator();
                     String optionName = values.next();
-                    this.knownOptions.add(optionName);
+                    options.add(optionName);
                 } catch (Exception e) {
                     // Ignore
                 }
             }
         }
+
+        return options;
     }
 
-    public void readTranslations() throws IOException, InterruptedException, ExecutionException {
+    private void readTranslations(Set<String> options) throws IOException, InterruptedException, ExecutionException {
         Set<File> filesToExamine = new HashSet<>();
 
         File versionsDir = Launcher.getInstance().getSaveSubDirectory("versions");
@@ -172,19 +176,18 @@ public class AutoConfigManager {
                 continue;
             }
 
-            Files.walk(modsDir.toPath())
-                    .map(Path::toFile)
-                    .filter(file -> file.getName().endsWith(".jar"))
-                    .forEach(filesToExamine::add);
+            try (Stream<Path> files = Files.walk(modsDir.toPath())) {
+                files.map(Path::toFile)
+                        .filter(file -> file.getName().endsWith(".jar"))
+                        .forEach(filesToExamine::add);
+            }
         }
 
-        List<TranslationReaderCallable> callables = filesToExamine.stream()
-                .map(file -> new TranslationReaderCallable(file, this))
-                .collect(Collectors.toList());
-
-        for (Future<Map<String, String>> future : AutoConfigManager.ioPool.invokeAll(callables)) {
-            this.optionTranslations.putAll(future.get());
-        }
+        this.translationIndex.getTranslations(filesToExamine, options, AutoConfigManager.ioPool).forEach((key, value) -> {
+            if (options.contains(key) || options.contains("key_" + key)) {
+                this.optionTranslations.put(key, value);
+            }
+        });
     }
 
     public Set<String> getKnownOptions() {
@@ -247,46 +250,6 @@ public class AutoConfigManager {
         return constraints;
     }
 
-    private static class TranslationReaderCallable implements Callable<Map<String, String>> {
-        private final File file;
-        private final AutoConfigManager autoConfigManager;
-
-        public TranslationReaderCallable(File file, AutoConfigManager autoConfigManager) {
-            this.file = file;
-            this.autoConfigManager = autoConfigManager;
-        }
-
-        @Override
-        public Map<String, String> call() throws Exception {
-            JarFile jarFile = new JarFile(this.file);
-            Map<String, String> translations = new HashMap<>();
-
-            Enumeration<JarEntry> jarEntries = jarFile.entries();
-            while (jarEntries.hasMoreElements()) {
-                JarEntry entry = jarEntries.nextElement();
-                if (entry.getName().toLowerCase().endsWith("lang/en_us.lang")) {
-                    Properties properties = new Properties();
-                    properties.load(new InputStreamReader(jarFile.getInputStream(entry), StandardCharsets.UTF_8));
-                    for (Map.Entry<Object, Object> langEntry : properties.entrySet()) {
-                        String key = String.valueOf(langEntry.getKey());
-                        String value = String.valueOf(langEntry.getValue());
-
-                        if (key.startsWith("soundCategory.")) {
-                            key = key.replace("soundCategory.", "soundCategory_");
-                            value = "Sound: " + value;
-                        }
-
-                        if (this.autoConfigManager.knownOptions.contains(key) || this.autoConfigManager.knownOptions.contains("key_" + key)) {
-                            translations.put(key, value);
-                        }
-                    }
-                }
-            }
-
-            return translations;
-        }
-    }
-
     public static class Constraint {
         private final int min;
         private final int max;
@@ -0,0 +1,264 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.autoconfig;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dauerhafter Index der für AutoConfig relevanten Übersetzungen aller Jars. Jars werden über ihren SHA-1 Hash identifiziert,
+ * der wiederum anhand von Pfad, Größe und Änderungsdatum zwischengespeichert wird. Nur neue oder geänderte Jars werden geöffnet,
+ * identische Jars in mehreren Instanzen nur einmal. Beim Einlesen werden nur Schlüssel übernommen, die zu einer bekannten Option
+ * gehören. Zu jedem Jar wird vermerkt, gegen welche Optionen gefiltert wurde, damit es bei neuen Optionen erneut gelesen wird.
+ */
+class TranslationIndex {
+    private static final Logger log = LoggerFactory.getLogger(TranslationIndex.class);
+    private static final Gson gson = new Gson();
+    private static final int version = 2;
+
+    private final File indexFile;
+    private IndexData data;
+
+    TranslationIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    private void load() {
+        this.data = new IndexData();
+        if (this.indexFile.isFile()) {
+            try (Reader reader = Files.newBufferedReader(this.indexFile.toPath(), StandardCharsets.UTF_8)) {
+                IndexData data = TranslationIndex.gson.fromJson(reader, IndexData.class);
+                if (data != null && data.version == TranslationIndex.version) {
+                    this.data = data;
+                }
+            } catch (IOException | JsonParseException e) {
+                TranslationIndex.log.warn("Übersetzungsindex konnte nicht gelesen werden, er wird neu aufgebaut", e);
+            }
+        }
+    }
+
+    /**
+     * Liefert die Übersetzungen der angegebenen Optionen aus allen angegebenen Jars. Einträge für nicht mehr vorhandene Jars werden
+     * dabei verworfen und der Index gespeichert, falls sich etwas geändert hat.
+     */
+    synchronized Map<String, String> getTranslations(Collection<File> jars, Set<String> options, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        if (this.data == null) {
+            this.load();
+        }
+
+        // Die gefilterten Optionen wachsen nur, entfallene Optionen lösen daher kein erneutes Einlesen aus
+        boolean optionsChanged = !this.data.options.containsAll(options);
+        if (optionsChanged) {
+            this.data.options.addAll(options);
+            this.data.optionsHash = DigestUtils.sha1Hex(String.join("\n", this.data.options));
+        }
+        Set<String> filter = this.data.options;
+        String optionsHash = this.data.optionsHash;
+
+        Map<String, FileInfo> files = new HashMap<>();
+        List<File> changed = jars.stream()
+                .filter(jar -> {
+                    FileInfo known = this.data.files.get(jar.getAbsolutePath());
+                    if (known != null && known.size == jar.length() && known.modified == jar.lastModified()
+                            && this.data.jars.containsKey(known.sha1)) {
+                        files.put(jar.getAbsolutePath(), known);
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, File> unknownJars = new HashMap<>();
+        files.values().stream()
+                .filter(info -> !optionsHash.equals(this.data.jars.get(info.sha1).options))
+                .forEach(info -> unknownJars.putIfAbsent(info.sha1, new File(info.path)));
+
+        boolean modified = optionsChanged || files.size() != this.data.files.size() || !changed.isEmpty();
+        if (!changed.isEmpty()) {
+            List<Callable<FileInfo>> hashTasks = changed.stream()
+                    .<Callable<FileInfo>>map(jar -> () -> TranslationIndex.hash(jar))
+                    .collect(Collectors.toList());
+            for (Future<FileInfo> future : executor.invokeAll(hashTasks)) {
+                FileInfo info = future.get();
+                if (info == null) {
+                    continue;
+                }
+
+                files.put(info.path, info);
+                JarData known = this.data.jars.get(info.sha1);
+                if (known == null || !optionsHash.equals(known.options)) {
+                    unknownJars.putIfAbsent(info.sha1, new File(info.path));
+                }
+            }
+        }
+
+        if (!unknownJars.isEmpty()) {
+            List<Callable<Map<String, String>>> scanTasks = unknownJars.values().stream()
+                    .<Callable<Map<String, String>>>map(jar -> () -> TranslationIndex.scan(jar, filter))
+                    .collect(Collectors.toList());
+            List<Future<Map<String, String>>> results = executor.invokeAll(scanTasks);
+            int i = 0;
+            for (String sha1 : unknownJars.keySet()) {
+                JarData jarData = new JarData();
+                jarData.options = optionsHash;
+                jarData.translations = results.get(i++).get();
+                this.data.jars.put(sha1, jarData);
+            }
+            TranslationIndex.log.info("Übersetzungsindex: {} Jars geprüft, {} neu eingelesen", changed.size(), unknownJars.size());
+        }
+
+        Set<String> referenced = files.values().stream().map(info -> info.sha1).collect(Collectors.toSet());
+        modified |= this.data.jars.keySet().retainAll(referenced);
+        this.data.files = files;
+        if (modified) {
+            this.save();
+        }
+
+        Map<String, String> translations = new HashMap<>();
+        referenced.forEach(sha1 -> translations.putAll(this.data.jars.get(sha1).translations));
+        return translations;
+    }
+
+    private void save() {
+        try {
+            this.indexFile.getParentFile().mkdirs();
+            File temp = new File(this.indexFile.getParentFile(), this.indexFile.getName() + ".tmp");
+            Files.write(temp.toPath(), TranslationIndex.gson.toJson(this.data).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), this.indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            TranslationIndex.log.warn("Übersetzungsindex konnte nicht gespeichert werden", e);
+        }
+    }
+
+    private static FileInfo hash(File jar) {
+        try (InputStream inputStream = Files.newInputStream(jar.toPath())) {
+            FileInfo info = new FileInfo();
+            info.path = jar.getAbsolutePath();
+            info.size = jar.length();
+            info.modified = jar.lastModified();
+            info.sha1 = DigestUtils.sha1Hex(inputStream);
+            return info;
+        } catch (IOException e) {
+            TranslationIndex.log.warn("Jar " + jar + " konnte nicht gelesen werden", e);
+            return null;
+        }
+    }
+
+    /**
+     * Liest die englischen Sprachdateien eines Jars, {@code en_us.lang} bis 1.12 und {@code en_us.json} ab 1.13. Übernommen werden nur
+     * Schlüssel, die zu einer der angegebenen Optionen gehören.
+     */
+    private static Map<String, String> scan(File jar, Set<String> options) {
+        Map<String, String> translations = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            for (ZipEntry entry : zipFile.stream().collect(Collectors.toList())) {
+                String name = entry.getName().toLowerCase(Locale.ROOT);
+                if (name.endsWith("lang/en_us.lang")) {
+                    Properties properties = new Properties();
+                    try (Reader reader = new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8)) {
+                        properties.load(reader);
+                    }
+                    properties.forEach((key, value) -> TranslationIndex.addTranslation(translations, options, String.valueOf(key),
+                            String.valueOf(value)));
+                } else if (name.endsWith("lang/en_us.json")) {
+                    try (Reader reader = new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8)) {
+                        JsonElement json = TranslationIndex.gson.fromJson(reader, JsonElement.class);
+                        if (json != null && json.isJsonObject()) {
+                            for (Map.Entry<String, JsonElement> langEntry : ((JsonObject) json).entrySet()) {
+                                if (langEntry.getValue().isJsonPrimitive()) {
+                                    TranslationIndex.addTranslation(translations, options, langEntry.getKey(),
+                                            langEntry.getValue().getAsString());
+                                }
+                            }
+                        }
+                    } catch (JsonParseException e) {
+                        TranslationIndex.log.debug("Ungültige Sprachdatei {} in {}", entry.getName(), jar);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            TranslationIndex.log.warn("Jar " + jar + " konnte nicht gelesen werden", e);
+        }
+
+        return translations;
+    }
+
+    private static void addTranslation(Map<String, String> translations, Set<String> options, String key, String value) {
+        if (key.startsWith("soundCategory.")) {
+            key = key.replace("soundCategory.", "soundCategory_");
+            value = "Sound: " + value;
+        }
+
+        if (options.contains(key) || options.contains("key_" + key)) {
+            translations.put(key, value);
+        }
+    }
+
+    private static class IndexData {
+        private int version = TranslationIndex.version;
+        private TreeSet<String> options = new TreeSet<>();
+        private String optionsHash = "";
+        private Map<String, FileInfo> files = new HashMap<>();
+        private Map<String, JarData> jars = new HashMap<>();
+    }
+
+    private static class JarData {
+        private String options;
+        private Map<String, String> translations;
+    }
+
+    private static class FileInfo {
+        private String path;
+        private long size;
+        private long modified;
+        private String sha1;
+    }
+
+}
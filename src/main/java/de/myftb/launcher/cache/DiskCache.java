@@ -0,0 +1,393 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cache;
+
+import com.google.gson.JsonObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verwaltet das Verzeichnis {@code cache} mit einer Obergrenze in Bytes. Jeder Schreiber legt seine Dateien in einem eigenen
+ * Namensraum ab und meldet Zugriffe hierüber, die Reihenfolge der Zugriffe wird im Journal {@code .journal} festgehalten.
+ * Wird die Obergrenze überschritten, werden im Hintergrund die am längsten nicht genutzten Dateien gelöscht.
+ *
+ * <p>Dateien im Namensraum {@link #shortcuts} werden von Desktop-Verknüpfungen referenziert und daher nie entfernt.
+ */
+public class DiskCache {
+    private static final Logger log = LoggerFactory.getLogger(DiskCache.class);
+    private static final long evictionInterval = TimeUnit.MINUTES.toMillis(10);
+    private static final String journalName = ".journal";
+    private static final Pattern legacyShortcut = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(ico|png)");
+
+    public static final String playerHeads = "playerheads";
+    public static final String modpackImages = "modpackimages";
+    public static final String shortcuts = "shortcuts";
+    /**
+     * Dateien älterer Launcherversionen, die direkt im Cacheverzeichnis liegen.
+     */
+    private static final String legacy = "";
+
+    private final File directory;
+    private final LongSupplier maxSize;
+    private final Timer timer = new Timer("DiskCache", true);
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75F, true);
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private long totalSize = 0;
+    private boolean dirty = false;
+
+    /**
+     * @param directory Cacheverzeichnis
+     * @param maxSize liefert die aktuelle Obergrenze in Bytes, damit Änderungen in den Einstellungen ohne Neustart greifen
+     */
+    public DiskCache(File directory, LongSupplier maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        this.timer.schedule(this.task(this::load), 0);
+        this.timer.schedule(this.task(this::evict), DiskCache.evictionInterval, DiskCache.evictionInterval);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveJournal, "DiskCache-Journal"));
+    }
+
+    /**
+     * Gibt den Speicherort eines Eintrags zurück, ohne einen Zugriff zu verbuchen.
+     */
+    public File getFile(String namespace, String key) {
+        return new File(this.directory, DiskCache.getPath(namespace, key));
+    }
+
+    /**
+     * Gibt einen vorhandenen Eintrag zurück und verbucht einen Treffer bzw. Fehlschlag für den Namensraum.
+     */
+    public Optional<File> get(String namespace, String key) {
+        File file = this.getFile(namespace, key);
+        Counters counters = this.getCounters(namespace);
+        if (!file.isFile()) {
+            counters.misses.increment();
+            return Optional.empty();
+        }
+
+        counters.hits.increment();
+        this.touch(namespace, key, file.length());
+        return Optional.of(file);
+    }
+
+    /**
+     * Schreibt einen Eintrag atomar, Leser sehen also entweder den alten oder den neuen Stand.
+     */
+    public File put(String namespace, String key, byte[] data) throws IOException {
+        File file = this.getFile(namespace, key);
+        file.getParentFile().mkdirs();
+        // Eigene temporäre Datei je Schreibvorgang, gleichzeitige Schreiber desselben Eintrags dürfen sich nicht in die Quere kommen
+        Path temp = Files.createTempFile(file.getParentFile().toPath(), file.getName() + ".", ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        this.touch(namespace, key, data.length);
+        return file;
+    }
+
+    /**
+     * Verbucht einen Eintrag, der direkt in {@link #getFile(String, String)} geschrieben wurde, z.B. durch einen fremden Encoder.
+     */
+    public File commit(String namespace, String key) {
+        File file = this.getFile(namespace, key);
+        if (file.isFile()) {
+            this.touch(namespace, key, file.length());
+        }
+        return file;
+    }
+
+    public void remove(String namespace, String key) {
+        String path = DiskCache.getPath(namespace, key);
+        synchronized (this.entries) {
+            Entry entry = this.entries.remove(path);
+            if (entry != null) {
+                this.totalSize -= entry.size;
+                this.dirty = true;
+            }
+        }
+        this.getFile(namespace, key).delete();
+    }
+
+    public JsonObject getStats() {
+        JsonObject namespaces = new JsonObject();
+        long totalSize;
+        synchronized (this.entries) {
+            totalSize = this.totalSize;
+            for (Entry entry : this.entries.values()) {
+                JsonObject namespace = DiskCache.getOrCreate(namespaces, entry.namespace);
+                namespace.addProperty("entries", (namespace.has("entries") ? namespace.get("entries").getAsLong() : 0) + 1);
+                namespace.addProperty("size", (namespace.has("size") ? namespace.get("size").getAsLong() : 0) + entry.size);
+            }
+        }
+        this.counters.forEach((name, counters) -> {
+            JsonObject namespace = DiskCache.getOrCreate(namespaces, name);
+            namespace.addProperty("hits", counters.hits.sum());
+            namespace.addProperty("misses", counters.misses.sum());
+            namespace.addProperty("evictions", counters.evictions.sum());
+        });
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("size", totalSize);
+        stats.addProperty("max_size", this.maxSize.getAsLong());
+        stats.add("namespaces", namespaces);
+        return stats;
+    }
+
+    private static JsonObject getOrCreate(JsonObject parent, String name) {
+        String key = name.isEmpty() ? "legacy" : name;
+        if (!parent.has(key)) {
+            parent.add(key, new JsonObject());
+        }
+        return parent.getAsJsonObject(key);
+    }
+
+    private Counters getCounters(String namespace) {
+        return this.counters.computeIfAbsent(namespace, name -> new Counters());
+    }
+
+    private static String getPath(String namespace, String key) {
+        if (key.contains("..") || key.startsWith("/")) {
+            throw new IllegalArgumentException("Ungültiger Cacheschlüssel " + key);
+        }
+        return namespace.isEmpty() ? key : namespace + "/" + key;
+    }
+
+    private void touch(String namespace, String key, long size) {
+        String path = DiskCache.getPath(namespace, key);
+        boolean overBudget;
+        synchronized (this.entries) {
+            Entry previous = this.entries.put(path, new Entry(namespace, size, System.currentTimeMillis()));
+            this.totalSize += size - (previous == null ? 0 : previous.size);
+            this.dirty = true;
+            overBudget = this.totalSize > this.maxSize.getAsLong();
+        }
+
+        if (overBudget && this.evictionScheduled.compareAndSet(false, true)) {
+            this.timer.schedule(this.task(this::evict), 0);
+        }
+    }
+
+    /**
+     * Eine ungefangene Ausnahme würde den Timer beenden und jede weitere Planung und damit jeden Schreibzugriff scheitern lassen.
+     */
+    private TimerTask task(Runnable runnable) {
+        return new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } catch (RuntimeException e) {
+                    DiskCache.log.warn("Fehler bei der Cachepflege", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Löscht die am längsten nicht genutzten Einträge, bis die Obergrenze wieder eingehalten wird.
+     */
+    private void evict() {
+        this.evictionScheduled.set(false);
+        long maxSize = this.maxSize.getAsLong();
+        List<String> evicted = new ArrayList<>();
+        synchronized (this.entries) {
+            Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+            while (this.totalSize > maxSize && iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+                if (DiskCache.shortcuts.equals(entry.getValue().namespace)) {
+                    continue;
+                }
+
+                iterator.remove();
+                this.totalSize -= entry.getValue().size;
+                this.getCounters(entry.getValue().namespace).evictions.increment();
+                evicted.add(entry.getKey());
+            }
+            this.dirty |= !evicted.isEmpty();
+        }
+
+        for (String path : evicted) {
+            new File(this.directory, path).delete();
+        }
+        if (!evicted.isEmpty()) {
+            DiskCache.log.info("{} Dateien aus dem Cache entfernt", evicted.size());
+        }
+        this.saveJournal();
+    }
+
+    /**
+     * Liest das Journal und gleicht es mit dem Verzeichnis ab. Dateien ohne Journaleintrag (z.B. nach einem Absturz oder aus älteren
+     * Versionen) werden mit ihrem Änderungsdatum als letztem Zugriff übernommen.
+     */
+    private void load() {
+        Map<String, Entry> journal = new LinkedHashMap<>();
+        File journalFile = new File(this.directory, DiskCache.journalName);
+        if (journalFile.isFile()) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t", 3);
+                    if (parts.length == 3) {
+                        journal.put(parts[2], new Entry(null, 0, Long.parseLong(parts[0])));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                DiskCache.log.warn("Cachejournal konnte nicht gelesen werden", e);
+            }
+        }
+
+        List<Map.Entry<String, Entry>> found = new ArrayList<>();
+        Path root = this.directory.toPath();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (!attributes.isRegularFile() || path.equals(DiskCache.journalName) || path.endsWith(".tmp")) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    int separator = path.indexOf('/');
+                    String namespace = separator < 0 ? DiskCache.legacy : path.substring(0, separator);
+                    if (separator < 0 && DiskCache.legacyShortcut.matcher(path).matches()) {
+                        namespace = DiskCache.shortcuts;
+                    }
+
+                    Entry journaled = journal.get(path);
+                    long lastAccess = journaled != null ? journaled.lastAccess : attributes.lastModifiedTime().toMillis();
+                    found.add(new AbstractMap.SimpleEntry<>(path, new Entry(namespace, attributes.size(), lastAccess)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // z.B. eine temporäre Datei, die während des Durchlaufs von put() verschoben wurde
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            DiskCache.log.warn("Cacheverzeichnis konnte nicht gelesen werden", e);
+            return;
+        }
+        found.sort(Map.Entry.comparingByValue((a, b) -> Long.compare(a.lastAccess, b.lastAccess)));
+
+        synchronized (this.entries) {
+            // Zugriffe seit dem Start sind neuer als alles im Journal und bleiben am Ende der Reihenfolge
+            Map<String, Entry> recent = new LinkedHashMap<>(this.entries);
+            this.entries.clear();
+            this.totalSize = 0;
+            for (Map.Entry<String, Entry> entry : found) {
+                if (!recent.containsKey(entry.getKey())) {
+                    this.entries.put(entry.getKey(), entry.getValue());
+                    this.totalSize += entry.getValue().size;
+                }
+            }
+            for (Map.Entry<String, Entry> entry : recent.entrySet()) {
+                this.entries.put(entry.getKey(), entry.getValue());
+                this.totalSize += entry.getValue().size;
+            }
+            this.dirty = true;
+        }
+
+        DiskCache.log.info("Cache: {} Dateien, {} KiB", found.size(), this.totalSize / 1024);
+        this.evict();
+    }
+
+    private void saveJournal() {
+        List<String> lines = new ArrayList<>();
+        synchronized (this.entries) {
+            if (!this.dirty) {
+                return;
+            }
+            this.entries.forEach((path, entry) -> lines.add(entry.lastAccess + "\t" + entry.size + "\t" + path));
+            this.dirty = false;
+        }
+
+        try {
+            this.directory.mkdirs();
+            File journalFile = new File(this.directory, DiskCache.journalName);
+            Path temp = Files.createTempFile(this.directory.toPath(), DiskCache.journalName + ".", ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            DiskCache.log.warn("Cachejournal konnte nicht gespeichert werden", e);
+        }
+    }
+
+    private static class Entry {
+        private final String namespace;
+        private final long size;
+        private final long lastAccess;
+
+        private Entry(String namespace, long size, long lastAccess) {
+            this.namespace = namespace;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+    }
+
+}
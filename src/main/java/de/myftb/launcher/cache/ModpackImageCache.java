@@ -0,0 +1,325 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.myftb.launcher.HttpRequest;
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.modpacks.ModpackManifestList;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.imageio.ImageIO;
+
+import net.sf.image4j.codec.ico.ICOEncoder;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gemeinsame Bildverwaltung für Modpacklogos. Originale werden mit ETag bzw. Last-Modified auf dem Datenträger abgelegt und nach
+ * Ablauf von {@link #revalidateAfter} im Hintergrund per bedingter Anfrage geprüft, bis dahin wird der vorhandene Stand ausgeliefert.
+ * Verkleinerte Varianten werden bei Bedarf erzeugt, ebenfalls auf dem Datenträger abgelegt und zusätzlich im Speicher gehalten.
+ */
+public class ModpackImageCache {
+    private static final Logger log = LoggerFactory.getLogger(ModpackImageCache.class);
+    private static final String imageUrl = "https://launcher.myftb.de/images/";
+    private static final long revalidateAfter = TimeUnit.HOURS.toMillis(6);
+    private static final List<Integer> iconSizes = Arrays.asList(16, 32, 48, 256);
+
+    private static final Cache<String, byte[]> memoryCache = CacheBuilder.newBuilder()
+            .maximumWeight(16 * 1024 * 1024)
+            .<String, byte[]>weigher((key, value) -> value.length)
+            .build();
+    private static final Map<String, Boolean> revalidating = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Void>> downloads = new ConcurrentHashMap<>();
+    /**
+     * Zeitpunkt der letzten 404-Antwort je Logo, bis {@link #revalidateAfter} verstrichen ist, wird nicht erneut angefragt.
+     */
+    private static final Map<String, Long> missing = new ConcurrentHashMap<>();
+    private static final ExecutorService revalidationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ModpackImage-Revalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Liefert das Logo eines Modpacks als PNG.
+     *
+     * @param pack Name des Modpacks
+     * @param size Kantenlänge in Pixeln oder 0 für das Original
+     */
+    public static Optional<byte[]> getImage(String pack, int size) throws IOException {
+        Optional<String> location = ModpackImageCache.getImageLocation(pack);
+        if (!location.isPresent()) {
+            return Optional.empty();
+        }
+
+        String key = location.get() + "@" + size;
+        byte[] cached = ModpackImageCache.memoryCache.getIfPresent(key);
+        if (cached != null) {
+            ModpackImageCache.revalidateIfStale(location.get());
+            return Optional.of(cached);
+        }
+
+        Optional<File> file = size > 0 ? ModpackImageCache.getThumbnailFile(location.get(), size) : ModpackImageCache.getOriginalFile(location.get());
+        if (!file.isPresent()) {
+            return Optional.empty();
+        }
+
+        byte[] data = Files.readAllBytes(file.get().toPath());
+        ModpackImageCache.memoryCache.put(key, data);
+        return Optional.of(data);
+    }
+
+    /**
+     * Speichert das Logo eines Modpacks, z.B. für Verknüpfungen. Endet {@code target} auf {@code .ico}, wird eine Windows-Icondatei
+     * mit mehreren Auflösungen erzeugt, ansonsten ein PNG der Größe {@code size}.
+     */
+    public static boolean saveImage(String pack, int size, File target) throws IOException {
+        Optional<String> location = ModpackImageCache.getImageLocation(pack);
+        if (!location.isPresent()) {
+            return false;
+        }
+
+        if (target.getName().endsWith(".ico")) {
+            Optional<File> original = ModpackImageCache.getOriginalFile(location.get());
+            if (!original.isPresent()) {
+                return false;
+            }
+
+            BufferedImage image = ImageIO.read(original.get());
+            ICOEncoder.write(ModpackImageCache.iconSizes.stream()
+                    .map(iconSize -> ModpackImageCache.scale(image, iconSize))
+                    .collect(Collectors.toList()), target);
+            return true;
+        }
+
+        Optional<File> thumbnail = ModpackImageCache.getThumbnailFile(location.get(), size);
+        if (!thumbnail.isPresent()) {
+            return false;
+        }
+
+        Files.copy(thumbnail.get().toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    private static Optional<String> getImageLocation(String pack) throws IOException {
+        return Launcher.getInstance().getRemotePacks().getPackByName(pack)
+                .map(ModpackManifestList.ModpackManifestReference::getLocation)
+                .map(location -> location.substring(0, location.lastIndexOf('.')) + ".png");
+    }
+
+    private static DiskCache getDiskCache() {
+        return Launcher.getInstance().getDiskCache();
+    }
+
+    private static Optional<File> getOriginalFile(String location) throws IOException {
+        Optional<File> file = ModpackImageCache.getDiskCache().get(DiskCache.modpackImages, location);
+        if (file.isPresent()) {
+            ModpackImageCache.revalidateIfStale(location);
+            return file;
+        }
+
+        Long missingSince = ModpackImageCache.missing.get(location);
+        if (missingSince != null && System.currentTimeMillis() - missingSince < ModpackImageCache.revalidateAfter) {
+            return Optional.empty();
+        }
+
+        // Gleichzeitige Anfragen nach demselben Logo warten auf einen gemeinsamen Download
+        CompletableFuture<Void> download = new CompletableFuture<>();
+        CompletableFuture<Void> running = ModpackImageCache.downloads.putIfAbsent(location, download);
+        if (running == null) {
+            try {
+                ModpackImageCache.fetch(location);
+                download.complete(null);
+            } catch (IOException | RuntimeException e) {
+                download.completeExceptionally(e);
+                throw e;
+            } finally {
+                ModpackImageCache.downloads.remove(location, download);
+            }
+        } else {
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                throw new IOException("Fehler beim Laden von Modpacklogo " + location, e.getCause());
+            }
+        }
+
+        File target = ModpackImageCache.getDiskCache().getFile(DiskCache.modpackImages, location);
+        return target.isFile() ? Optional.of(target) : Optional.empty();
+    }
+
+    private static Optional<File> getThumbnailFile(String location, int size) throws IOException {
+        Optional<File> original = ModpackImageCache.getOriginalFile(location);
+        if (!original.isPresent()) {
+            return Optional.empty();
+        }
+
+        String key = "thumbnails/" + size + "/" + location;
+        Optional<File> thumbnail = ModpackImageCache.getDiskCache().get(DiskCache.modpackImages, key);
+        if (!thumbnail.isPresent() || thumbnail.get().lastModified() < original.get().lastModified()) {
+            BufferedImage image = ImageIO.read(original.get());
+            if (image == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(ModpackImageCache.getDiskCache().put(DiskCache.modpackImages, key,
+                    ModpackImageCache.encodePng(ModpackImageCache.scale(image, size))));
+        }
+
+        return thumbnail;
+    }
+
+    private static void revalidateIfStale(String location) {
+        File metaFile = ModpackImageCache.getDiskCache().getFile(DiskCache.modpackImages, location + ".meta");
+        if (System.currentTimeMillis() - metaFile.lastModified() < ModpackImageCache.revalidateAfter
+                || ModpackImageCache.revalidating.putIfAbsent(location, Boolean.TRUE) != null) {
+            return;
+        }
+
+        ModpackImageCache.revalidationExecutor.execute(() -> {
+            try {
+                ModpackImageCache.fetch(location);
+            } catch (IOException e) {
+                ModpackImageCache.log.warn("Fehler beim Aktualisieren von Modpacklogo " + location, e);
+            } finally {
+                ModpackImageCache.revalidating.remove(location);
+            }
+        });
+    }
+
+    /**
+     * Lädt ein Logo herunter. Liegt bereits eine Version vor, wird nur bei Änderungen übertragen, ansonsten lediglich der
+     * Prüfzeitpunkt (Änderungsdatum der Metadatei) aktualisiert.
+     */
+    private static void fetch(String location) throws IOException {
+        File file = ModpackImageCache.getDiskCache().getFile(DiskCache.modpackImages, location);
+        File metaFile = ModpackImageCache.getDiskCache().getFile(DiskCache.modpackImages, location + ".meta");
+        Properties meta = new Properties();
+        if (file.isFile() && metaFile.isFile()) {
+            try (InputStream inputStream = Files.newInputStream(metaFile.toPath())) {
+                meta.load(inputStream);
+            }
+        }
+
+        Request request = HttpRequest.getResource(ModpackImageCache.imageUrl + location);
+        if (meta.containsKey("etag")) {
+            request.addHeader("If-None-Match", meta.getProperty("etag"));
+        }
+        if (meta.containsKey("last-modified")) {
+            request.addHeader("If-Modified-Since", meta.getProperty("last-modified"));
+        }
+
+        HttpResponse response = request.execute().returnResponse();
+        int status = response.getStatusLine().getStatusCode();
+        if (status == 304) {
+            metaFile.setLastModified(System.currentTimeMillis());
+            return;
+        } else if (status == 404) {
+            ModpackImageCache.missing.put(location, System.currentTimeMillis());
+            return;
+        } else if (status != 200) {
+            throw new IOException("Unerwarteter Status " + status + " für " + location);
+        }
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        response.getEntity().writeTo(byteArrayOutputStream);
+        ModpackImageCache.getDiskCache().put(DiskCache.modpackImages, location, byteArrayOutputStream.toByteArray());
+        ModpackImageCache.missing.remove(location);
+
+        meta.clear();
+        Header etag = response.getFirstHeader("ETag");
+        Header lastModified = response.getFirstHeader("Last-Modified");
+        if (etag != null) {
+            meta.setProperty("etag", etag.getValue());
+        }
+        if (lastModified != null) {
+            meta.setProperty("last-modified", lastModified.getValue());
+        }
+        try (ByteArrayOutputStream metaOutput = new ByteArrayOutputStream()) {
+            meta.store(metaOutput, null);
+            ModpackImageCache.getDiskCache().put(DiskCache.modpackImages, location + ".meta",
+                    metaOutput.toString("ISO-8859-1").getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        ModpackImageCache.memoryCache.asMap().keySet().removeIf(key -> key.startsWith(location + "@"));
+    }
+
+    /**
+     * Skaliert das Bild so, dass es in ein Quadrat der Kantenlänge {@code size} passt. Verkleinert wird schrittweise um höchstens die
+     * Hälfte je Durchgang, damit auch starke Verkleinerungen mit bilinearer Interpolation nicht ausfransen.
+     */
+    private static BufferedImage scale(BufferedImage image, int size) {
+        double factor = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = scaled;
+        } while (width > targetWidth || height > targetHeight);
+
+        return current;
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", byteArrayOutputStream);
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+
+}
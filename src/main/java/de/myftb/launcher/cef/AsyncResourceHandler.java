@@ -0,0 +1,238 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cef;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cef.callback.CefCallback;
+import org.cef.handler.CefResourceHandlerAdapter;
+import org.cef.misc.IntRef;
+import org.cef.misc.StringRef;
+import org.cef.network.CefRequest;
+import org.cef.network.CefResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Basisklasse für Scheme-Handler, deren Inhalte aus dem Netz oder vom Datenträger geladen werden.
+ * {@link #load(String, CefRequest)} läuft nicht auf dem IO-Thread von CEF, sondern auf einem eigenen Pool. Der Inhalt wird
+ * blockweise an CEF weitergereicht, sobald er verfügbar ist. Für jede Anfrage muss eine eigene Instanz erzeugt werden.
+ * Handler, die von fremden Servern abhängen, sollten über {@link #getLoaderPool()} einen eigenen Pool verwenden, da ein Abbruch
+ * blockierende Netzwerkzugriffe nicht unterbricht.
+ */
+public abstract class AsyncResourceHandler extends CefResourceHandlerAdapter {
+    private static final Logger log = LoggerFactory.getLogger(AsyncResourceHandler.class);
+    private static final int chunkSize = 16 * 1024;
+    private static final ExecutorService loaderPool = AsyncResourceHandler.newLoaderPool("ResourceLoader", 4);
+
+    private final Queue<byte[]> chunks = new ArrayDeque<>();
+    private Response response;
+    private Future<?> loadTask;
+    private byte[] currentChunk;
+    private int chunkOffset;
+    private boolean finished = false;
+    private CefCallback readCallback;
+    private volatile boolean canceled = false;
+
+    /**
+     * Lädt den Inhalt für den angegebenen Pfad. Wird nicht auf dem IO-Thread von CEF ausgeführt und darf daher blockieren.
+     *
+     * @param path Pfad der URL ohne führenden Schrägstrich
+     * @param request die ursprüngliche Anfrage, z.B. für Header
+     */
+    protected abstract Response load(String path, CefRequest request) throws IOException;
+
+    /**
+     * Pool, auf dem {@link #load(String, CefRequest)} ausgeführt wird.
+     */
+    protected ExecutorService getLoaderPool() {
+        return AsyncResourceHandler.loaderPool;
+    }
+
+    /**
+     * Erzeugt einen Pool aus Daemon-Threads, deren Threads nach 30 Sekunden ohne Aufgabe beendet werden.
+     */
+    protected static ExecutorService newLoaderPool(String name, int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        poolExecutor.allowCoreThreadTimeOut(true);
+        return poolExecutor;
+    }
+
+    @Override
+    public boolean processRequest(CefRequest request, CefCallback callback) {
+        String path;
+        try {
+            path = new URI(request.getURL()).getPath().substring(1);
+        } catch (URISyntaxException e) {
+            AsyncResourceHandler.log.warn("Fehler beim Lesen der Request URI", e);
+            return false;
+        }
+
+        this.loadTask = this.getLoaderPool().submit(() -> {
+            Response response;
+            try {
+                response = this.load(path, request);
+            } catch (IOException | RuntimeException e) {
+                AsyncResourceHandler.log.warn("Fehler beim Laden von " + request.getURL(), e);
+                response = Response.notFound();
+            }
+
+            synchronized (this) {
+                this.response = response;
+            }
+            if (!this.canceled) {
+                callback.Continue();
+                this.pump(response.body);
+            } else {
+                try {
+                    response.body.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        });
+        return true;
+    }
+
+    private void pump(InputStream body) {
+        try (InputStream inputStream = body) {
+            byte[] buffer = new byte[AsyncResourceHandler.chunkSize];
+            int read;
+            while (!this.canceled && (read = inputStream.read(buffer)) != -1) {
+                if (read > 0) {
+                    this.offer(Arrays.copyOf(buffer, read), false);
+                }
+            }
+        } catch (IOException e) {
+            AsyncResourceHandler.log.warn("Fehler beim Übertragen einer Antwort", e);
+        } finally {
+            this.offer(null, true);
+        }
+    }
+
+    private void offer(byte[] chunk, boolean last) {
+        CefCallback callback;
+        synchronized (this) {
+            if (chunk != null) {
+                this.chunks.add(chunk);
+            }
+            this.finished = last;
+            callback = this.readCallback;
+            this.readCallback = null;
+        }
+
+        if (callback != null) {
+            callback.Continue();
+        }
+    }
+
+    @Override
+    public synchronized void getResponseHeaders(CefResponse response, IntRef responseLength, StringRef redirectUrl) {
+        if (this.response.mimeType != null) {
+            response.setMimeType(this.response.mimeType);
+        }
+        if (!this.response.headers.isEmpty()) {
+            response.setHeaderMap(this.response.headers);
+        }
+        response.setStatus(this.response.status);
+        responseLength.set((int) this.response.length);
+    }
+
+    @Override
+    public synchronized boolean readResponse(byte[] dataOut, int bytesToRead, IntRef bytesRead, CefCallback callback) {
+        if (this.currentChunk == null || this.chunkOffset >= this.currentChunk.length) {
+            this.currentChunk = this.chunks.poll();
+            this.chunkOffset = 0;
+        }
+
+        if (this.currentChunk == null) {
+            bytesRead.set(0);
+            if (this.finished) {
+                return false;
+            }
+
+            // Noch keine Daten verfügbar, CEF wartet auf callback.Continue()
+            this.readCallback = callback;
+            return true;
+        }
+
+        int length = Math.min(bytesToRead, this.currentChunk.length - this.chunkOffset);
+        System.arraycopy(this.currentChunk, this.chunkOffset, dataOut, 0, length);
+        this.chunkOffset += length;
+        bytesRead.set(length);
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+        this.canceled = true;
+        if (this.loadTask != null) {
+            this.loadTask.cancel(true);
+        }
+    }
+
+    public static class Response {
+        private final int status;
+        private final String mimeType;
+        private final InputStream body;
+        private final long length;
+        private final Map<String, String> headers = new HashMap<>();
+
+        private Response(int status, String mimeType, InputStream body, long length) {
+            this.status = status;
+            this.mimeType = mimeType;
+            this.body = body;
+            this.length = length;
+        }
+
+        public static Response of(String mimeType, byte[] data) {
+            return data.length == 0 ? Response.notFound() : new Response(200, mimeType, new ByteArrayInputStream(data), data.length);
+        }
+
+        public static Response notFound() {
+            return new Response(404, null, new ByteArrayInputStream(new byte[0]), 0);
+        }
+
+        public Response header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+    }
+
+}
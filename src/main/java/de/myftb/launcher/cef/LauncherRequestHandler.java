@@ -37,7 +37,6 @@ public class LauncherRequestHandler extends CefRequestHandlerAdapter {
     private static final Logger log = LoggerFactory.getLogger(LauncherRequestHandler.class);
     private static final List<String> allowedSchemes = Arrays.asList("playerhead", "chrome-devtools", "modpackimage", "launcher");
     private static final List<String> allowedHosts = Arrays.asList("127.0.0.1", "localhost", "launcher.myftb.local"); //NOPMD
-    private static final LauncherScheme launcherScheme = new LauncherScheme();
 
     private boolean checkRequest(CefRequest request) {
         try {
@@ -73,7 +72,7 @@ public class LauncherRequestHandler extends CefRequestHandlerAdapter {
         try {
             URI uri = new URI(cefRequest.getURL());
             if (uri.getHost().equals("launcher.myftb.local")) {
-                return LauncherRequestHandler.launcherScheme;
+                return new LauncherScheme();
             }
         } catch (URISyntaxException e) {
             // Ignore
@@ -0,0 +1,181 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cef.ipc;
+
+import com.google.gson.JsonObject;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Führt asynchrone IPC-Handler auf einem begrenzten Thread-Pool bzw. auf virtuellen Threads aus, sofern die Java-Version diese unterstützt.
+ * Sind bereits {@value #maxPending} Anfragen ausstehend, werden weitere sofort mit einem Fehler beantwortet.
+ */
+public class IpcDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(IpcDispatcher.class);
+    private static final int maxPending = 256;
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Map<String, SerialQueue> serialQueues = new ConcurrentHashMap<>();
+    private final IpcMetrics metrics;
+
+    public IpcDispatcher(IpcMetrics metrics) {
+        this.metrics = metrics;
+        ExecutorService virtualExecutor = IpcDispatcher.createVirtualThreadExecutor();
+        this.virtualThreads = virtualExecutor != null;
+        if (this.virtualThreads) {
+            this.executor = virtualExecutor;
+        } else {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "IpcDispatcher-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            poolExecutor.allowCoreThreadTimeOut(true);
+            this.executor = poolExecutor;
+        }
+        IpcDispatcher.log.info("IPC-Handler laufen auf {}", this.virtualThreads ? "virtuellen Threads" : "einem Thread-Pool");
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reiht einen Handler ein.
+     *
+     * @param topic Topic der Anfrage
+     * @param serial {@code true}, wenn Anfragen dieses Topics nacheinander abgearbeitet werden sollen
+     * @param task Handler
+     * @return {@code false}, wenn die Anfrage auf Grund zu vieler ausstehender Anfragen abgelehnt wurde
+     */
+    public boolean dispatch(String topic, boolean serial, Runnable task) {
+        IpcMetrics.TopicMetrics topicMetrics = this.metrics.getTopic(topic);
+        if (this.pending.incrementAndGet() > IpcDispatcher.maxPending) {
+            this.pending.decrementAndGet();
+            topicMetrics.recordRejected();
+            IpcDispatcher.log.warn("IPC-Anfrage {} abgelehnt, {} Anfragen ausstehend", topic, IpcDispatcher.maxPending);
+            return false;
+        }
+
+        long queuedAt = System.nanoTime();
+        Runnable measuredTask = () -> {
+            topicMetrics.recordQueueTime(System.nanoTime() - queuedAt);
+            this.running.incrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                IpcDispatcher.log.warn("Fehler in IPC-Handler " + topic, e);
+            } finally {
+                this.running.decrementAndGet();
+                this.pending.decrementAndGet();
+            }
+        };
+
+        if (serial) {
+            this.serialQueues.computeIfAbsent(topic, key -> new SerialQueue()).add(measuredTask);
+        } else {
+            this.executor.execute(measuredTask);
+        }
+        return true;
+    }
+
+    /**
+     * Stellt den Dispatcher als {@link Executor} für Teilaufgaben eines Topics bereit, z.B. für {@link java.util.concurrent.CompletableFuture}.
+     * Bei Überlastung wird eine {@link RejectedExecutionException} geworfen.
+     */
+    public Executor asExecutor(String topic) {
+        return task -> {
+            if (!this.dispatch(topic, false, task)) {
+                throw new RejectedExecutionException("Zu viele ausstehende IPC-Anfragen");
+            }
+        };
+    }
+
+    /**
+     * Anzahl der angenommenen, aber noch nicht gestarteten Anfragen.
+     *
+     * @return Länge der Warteschlange
+     */
+    public int getQueueDepth() {
+        return this.pending.get() - this.running.get();
+    }
+
+    public JsonObject getStats() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("virtual_threads", this.virtualThreads);
+        jsonObject.addProperty("queue_depth", this.getQueueDepth());
+        jsonObject.addProperty("running", this.running.get());
+        return jsonObject;
+    }
+
+    /**
+     * Führt die Aufgaben eines Topics nacheinander auf dem gemeinsamen Executor aus, ohne dafür einen Thread zu belegen.
+     */
+    private class SerialQueue {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean active = false;
+
+        private synchronized void add(Runnable task) {
+            this.tasks.add(task);
+            if (!this.active) {
+                this.active = true;
+                IpcDispatcher.this.executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    task = this.tasks.poll();
+                    if (task == null) {
+                        this.active = false;
+                        return;
+                    }
+                }
+                task.run();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cef.ipc;
+
+import com.google.gson.JsonObject;
+
+import de.myftb.launcher.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Sammelt Kennzahlen je IPC-Topic, getrennt nach eingehenden Anfragen und ausgehenden Nachrichten.
+ * Zeiten werden in Millisekunden, Nutzdaten in Zeichen erfasst. Die EDT-Verzögerung misst die Zeit zwischen
+ * {@code SwingUtilities.invokeLater} und der tatsächlichen Übergabe an CEF.
+ */
+public class IpcMetrics {
+    private final Map<String, TopicMetrics> topics = new ConcurrentHashMap<>();
+
+    TopicMetrics getTopic(String topic) {
+        return this.topics.computeIfAbsent(topic, key -> new TopicMetrics());
+    }
+
+    public JsonObject toJson() {
+        JsonObject jsonObject = new JsonObject();
+        new TreeMap<>(this.topics).forEach((topic, metrics) -> jsonObject.add(topic, metrics.toJson()));
+        return jsonObject;
+    }
+
+    public void logSummary(Logger log) {
+        new TreeMap<>(this.topics).forEach((topic, metrics) -> {
+            if (metrics.queries.sum() > 0) {
+                log.info(String.format("IPC %s: %d Anfragen (%d fehlgeschlagen, %d abgelehnt, %d abgebrochen), Handler p50 %.1f ms / p99 %.1f ms / max %.1f ms, "
+                                + "Warteschlange p99 %.1f ms, EDT p99 %.1f ms, Antworten %d Zeichen",
+                        topic, metrics.queries.sum(), metrics.failures.sum(), metrics.rejected.sum(), metrics.canceled.sum(),
+                        metrics.handlerTime.getPercentile(0.5), metrics.handlerTime.getPercentile(0.99), metrics.handlerTime.getMax(),
+                        metrics.queueTime.getPercentile(0.99), metrics.edtDelay.getPercentile(0.99), metrics.responseSize.sum()));
+            }
+            if (metrics.messages.sum() > 0) {
+                log.info(String.format("IPC %s: %d gesendete Nachrichten, %d Zeichen, EDT p99 %.1f ms",
+                        topic, metrics.messages.sum(), metrics.messageSize.sum(), metrics.edtDelay.getPercentile(0.99)));
+            }
+        });
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static class TopicMetrics {
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder canceled = new LongAdder();
+        private final LongAdder requestSize = new LongAdder();
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder responseSize = new LongAdder();
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder messageSize = new LongAdder();
+        private final Histogram handlerTime = new Histogram();
+        private final Histogram queueTime = new Histogram();
+        private final Histogram edtDelay = new Histogram();
+        private final Histogram payloadSize = new Histogram();
+
+        void recordQuery(int size) {
+            this.queries.increment();
+            this.requestSize.add(size);
+        }
+
+        void recordHandlerTime(long nanos) {
+            this.handlerTime.record(IpcMetrics.toMillis(nanos));
+        }
+
+        void recordQueueTime(long nanos) {
+            this.queueTime.record(IpcMetrics.toMillis(nanos));
+        }
+
+        void recordEdtDelay(long nanos) {
+            this.edtDelay.record(IpcMetrics.toMillis(nanos));
+        }
+
+        void recordResponse(int size) {
+            this.responses.increment();
+            this.responseSize.add(size);
+            this.payloadSize.record(size);
+        }
+
+        void recordFailure() {
+            this.failures.increment();
+        }
+
+        void recordRejected() {
+            this.rejected.increment();
+        }
+
+        void recordCanceled() {
+            this.canceled.increment();
+        }
+
+        void recordMessage(int size) {
+            this.messages.increment();
+            this.messageSize.add(size);
+            this.payloadSize.record(size);
+        }
+
+        private JsonObject toJson() {
+            JsonObject inbound = new JsonObject();
+            inbound.addProperty("queries", this.queries.sum());
+            inbound.addProperty("failures", this.failures.sum());
+            inbound.addProperty("rejected", this.rejected.sum());
+            inbound.addProperty("canceled", this.canceled.sum());
+            inbound.addProperty("request_size", this.requestSize.sum());
+            inbound.addProperty("responses", this.responses.sum());
+            inbound.addProperty("response_size", this.responseSize.sum());
+            inbound.addProperty("handler_p50_ms", this.handlerTime.getPercentile(0.5));
+            inbound.addProperty("handler_p99_ms", this.handlerTime.getPercentile(0.99));
+            inbound.addProperty("handler_max_ms", this.handlerTime.getMax());
+            inbound.addProperty("queue_p50_ms", this.queueTime.getPercentile(0.5));
+            inbound.addProperty("queue_p99_ms", this.queueTime.getPercentile(0.99));
+
+            JsonObject outbound = new JsonObject();
+            outbound.addProperty("messages", this.messages.sum());
+            outbound.addProperty("message_size", this.messageSize.sum());
+
+            JsonObject jsonObject = new JsonObject();
+            jsonObject.add("inbound", inbound);
+            jsonObject.add("outbound", outbound);
+            jsonObject.addProperty("edt_p50_ms", this.edtDelay.getPercentile(0.5));
+            jsonObject.addProperty("edt_p99_ms", this.edtDelay.getPercentile(0.99));
+            jsonObject.addProperty("payload_p99_size", this.payloadSize.getPercentile(0.99));
+            jsonObject.addProperty("payload_max_size", this.payloadSize.getMax());
+            return jsonObject;
+        }
+    }
+
+}
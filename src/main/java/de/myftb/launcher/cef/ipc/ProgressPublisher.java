@@ -0,0 +1,86 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cef.ipc;
+
+import de.myftb.launcher.launch.LaunchMinecraft;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Leitet den Installationsfortschritt gedrosselt an die UI weiter. Es wird höchstens {@code rate} mal pro Sekunde der jeweils
+ * aktuelle Stand gesendet, der letzte Stand wird über {@link #finish()} immer zugestellt.
+ */
+public class ProgressPublisher implements LaunchMinecraft.InstallationStatusListener {
+    private static final Timer publishTimer = new Timer("ProgressPublisher", true);
+
+    private final TopicMessageHandler.JsonQueryCallback callback;
+    private final TimerTask publishTask;
+    private int total;
+    private int finished;
+    private int failed;
+    private boolean dirty = false;
+    private boolean closed = false;
+
+    public ProgressPublisher(TopicMessageHandler.JsonQueryCallback callback, int rate) {
+        this.callback = callback;
+        this.publishTask = new TimerTask() {
+            @Override
+            public void run() {
+                ProgressPublisher.this.publish();
+            }
+        };
+
+        long period = 1000L / Math.max(1, Math.min(rate, 1000));
+        ProgressPublisher.publishTimer.scheduleAtFixedRate(this.publishTask, period, period);
+    }
+
+    @Override
+    public synchronized void progressChange(int total, int finished, int failed) {
+        this.total = total;
+        this.finished = finished;
+        this.failed = failed;
+        this.dirty = true;
+    }
+
+    /**
+     * Beendet das Sampling und sendet den letzten Stand, falls dieser noch nicht übertragen wurde.
+     * Nachfolgende Nachrichten über denselben Callback werden danach in der richtigen Reihenfolge zugestellt.
+     */
+    public synchronized void finish() {
+        this.publishTask.cancel();
+        this.publish();
+        this.closed = true;
+    }
+
+    private synchronized void publish() {
+        if (this.closed || !this.dirty) {
+            return;
+        }
+
+        this.dirty = false;
+        this.callback.successRaw(new StringBuilder(64)
+                .append("{\"installing\":{\"total\":").append(this.total)
+                .append(",\"finished\":").append(this.finished)
+                .append(",\"failed\":").append(this.failed)
+                .append("}}")
+                .toString());
+    }
+
+}
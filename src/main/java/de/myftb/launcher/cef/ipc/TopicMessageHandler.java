@@ -22,8 +22,10 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 import javax.swing.SwingUtilities;
 
@@ -37,8 +39,15 @@ import org.slf4j.LoggerFactory;
 public class TopicMessageHandler extends CefMessageRouterHandlerAdapter {
     private static final Logger log = LoggerFactory.getLogger(TopicMessageHandler.class);
     private static final Gson gson = new Gson();
-    private final Map<String, CefQueryCallback> topicCallbacks = new HashMap<>();
-    private final Map<String, BiConsumer<JsonObject, JsonQueryCallback>> topicMessageConsumer = new HashMap<>();
+    private final Map<String, CefQueryCallback> topicCallbacks = new ConcurrentHashMap<>();
+    private final Map<String, BiConsumer<JsonObject, JsonQueryCallback>> topicMessageConsumer = new ConcurrentHashMap<>();
+    private final Map<Long, JsonQueryCallback> pendingQueries = new ConcurrentHashMap<>();
+    private final IpcMetrics metrics = new IpcMetrics();
+    private final IpcDispatcher dispatcher = new IpcDispatcher(this.metrics);
+
+    public TopicMessageHandler() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> this.metrics.logSummary(TopicMessageHandler.log), "IPC-Metrics"));
+    }
 
     @Override
     public boolean onQuery(CefBrowser browser, CefFrame frame, long queryId, String request, boolean persistent, CefQueryCallback callback) {
@@ -61,13 +70,20 @@ public class TopicMessageHandler extends CefMessageRouterHandlerAdapter {
         } else if (this.topicCallbacks.containsKey(topic) && "unregister".equals(request)) {
             this.topicCallbacks.remove(topic);
             return true;
-        } else if (this.topicMessageConsumer.containsKey(topic)) {
+        }
+
+        BiConsumer<JsonObject, JsonQueryCallback> messageConsumer = this.topicMessageConsumer.get(topic);
+        if (messageConsumer != null) {
             JsonObject object = null;
             if (!request.isEmpty()) {
                 object = TopicMessageHandler.gson.fromJson(request, JsonElement.class).getAsJsonObject();
             }
 
-            this.topicMessageConsumer.get(topic).accept(object, new JsonQueryCallback(callback));
+            IpcMetrics.TopicMetrics topicMetrics = this.metrics.getTopic(topic);
+            topicMetrics.recordQuery(request.length());
+            JsonQueryCallback queryCallback = new JsonQueryCallback(callback, topicMetrics, () -> this.pendingQueries.remove(queryId));
+            this.pendingQueries.put(queryId, queryCallback);
+            messageConsumer.accept(object, queryCallback);
             return true;
         } else {
             callback.failure(-1, "Nicht registriert bzw. nicht registrierbar");
@@ -75,46 +91,183 @@ public class TopicMessageHandler extends CefMessageRouterHandlerAdapter {
         }
     }
 
+    @Override
+    public void onQueryCanceled(CefBrowser browser, CefFrame frame, long queryId) {
+        JsonQueryCallback queryCallback = this.pendingQueries.remove(queryId);
+        if (queryCallback != null) {
+            queryCallback.cancel();
+        }
+    }
+
     public void listen(String topic, BiConsumer<JsonObject, JsonQueryCallback> messageConsumer) {
-        this.topicMessageConsumer.put(topic, messageConsumer);
+        this.topicMessageConsumer.put(topic, (data, callback) -> TopicMessageHandler.handle(messageConsumer, data, callback));
     }
 
+    /**
+     * Führt den Handler auf dem gemeinsamen {@link IpcDispatcher} aus.
+     */
     public void listenAsync(String topic, BiConsumer<JsonObject, JsonQueryCallback> messageConsumer) {
-        this.listen(topic, (data, callback) -> {
-            Thread thread = new Thread(() -> messageConsumer.accept(data, callback));
+        this.listenDispatched(topic, false, messageConsumer);
+    }
+
+    /**
+     * Wie {@link #listenAsync(String, BiConsumer)}, Anfragen dieses Topics werden jedoch nacheinander in Eingangsreihenfolge abgearbeitet.
+     */
+    public void listenSerial(String topic, BiConsumer<JsonObject, JsonQueryCallback> messageConsumer) {
+        this.listenDispatched(topic, true, messageConsumer);
+    }
+
+    /**
+     * Für Handler, die minutenlang blockieren können (Installation, Spielstart, Dateidialoge) und daher keinen Platz im gemeinsamen Pool belegen sollen.
+     */
+    public void listenLongRunning(String topic, BiConsumer<JsonObject, JsonQueryCallback> messageConsumer) {
+        this.topicMessageConsumer.put(topic, (data, callback) -> {
+            Thread thread = new Thread(() -> TopicMessageHandler.handle(messageConsumer, data, callback), "IPC-" + topic);
 
             thread.setDaemon(true);
             thread.start();
         });
     }
 
+    private void listenDispatched(String topic, boolean serial, BiConsumer<JsonObject, JsonQueryCallback> messageConsumer) {
+        this.topicMessageConsumer.put(topic, (data, callback) -> {
+            boolean accepted = this.dispatcher.dispatch(topic, serial, () -> TopicMessageHandler.handle(messageConsumer, data, callback));
+
+            if (!accepted) {
+                callback.failure("Der Launcher ist gerade ausgelastet, bitte versuche es gleich erneut");
+                callback.complete();
+            }
+        });
+    }
+
+    private static void handle(BiConsumer<JsonObject, JsonQueryCallback> messageConsumer, JsonObject data, JsonQueryCallback callback) {
+        long start = System.nanoTime();
+        try {
+            if (!callback.isCanceled()) {
+                messageConsumer.accept(data, callback);
+            }
+        } finally {
+            callback.complete();
+            callback.metrics.recordHandlerTime(System.nanoTime() - start);
+        }
+    }
+
+    public IpcDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Kennzahlen aller Topics sowie die Auslastung des {@link IpcDispatcher}.
+     */
+    public JsonObject getDiagnostics() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.add("dispatcher", this.dispatcher.getStats());
+        jsonObject.add("topics", this.metrics.toJson());
+        return jsonObject;
+    }
+
     public void send(String topic, Object object) {
-        if (this.topicCallbacks.containsKey(topic)) {
+        CefQueryCallback callback = this.topicCallbacks.get(topic);
+        if (callback != null) {
             String message = object instanceof JsonObject ? object.toString() : TopicMessageHandler.gson.toJson(object);
-            SwingUtilities.invokeLater(() -> this.topicCallbacks.get(topic).success(message));
+            this.deliver(topic, callback, message);
         }
     }
 
     public void sendString(String topic, String message) {
-        if (this.topicCallbacks.containsKey(topic)) {
-            SwingUtilities.invokeLater(() -> this.topicCallbacks.get(topic).success(message));
+        CefQueryCallback callback = this.topicCallbacks.get(topic);
+        if (callback != null) {
+            this.deliver(topic, callback, message);
         }
     }
 
+    private void deliver(String topic, CefQueryCallback callback, String message) {
+        IpcMetrics.TopicMetrics topicMetrics = this.metrics.getTopic(topic);
+        topicMetrics.recordMessage(message.length());
+
+        long queuedAt = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            topicMetrics.recordEdtDelay(System.nanoTime() - queuedAt);
+            callback.success(message);
+        });
+    }
+
+    /**
+     * Antwortkanal einer einzelnen Anfrage. Bricht die UI die Anfrage ab (z.B. beim Verlassen einer Seite), wird das Abbruch-Token
+     * gesetzt und alle über {@link #onCancel(Runnable)} registrierten Aktionen ausgeführt. Antworten an abgebrochene Anfragen werden verworfen.
+     */
     public static class JsonQueryCallback {
         private final CefQueryCallback callback;
+        private final IpcMetrics.TopicMetrics metrics;
+        private final Runnable completionHandler;
+        private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+        private volatile boolean canceled = false;
 
-        public JsonQueryCallback(CefQueryCallback callback) {
+        JsonQueryCallback(CefQueryCallback callback, IpcMetrics.TopicMetrics metrics, Runnable completionHandler) {
             this.callback = callback;
+            this.metrics = metrics;
+            this.completionHandler = completionHandler;
         }
 
         public void success(Object response) {
-            String message = response instanceof JsonObject ? response.toString() : TopicMessageHandler.gson.toJson(response);
-            SwingUtilities.invokeLater(() -> this.callback.success(message));
+            if (this.canceled) {
+                return;
+            }
+
+            this.successRaw(response instanceof JsonObject ? response.toString() : TopicMessageHandler.gson.toJson(response));
+        }
+
+        /**
+         * Sendet bereits serialisiertes JSON unverändert an die UI.
+         */
+        public void successRaw(String json) {
+            if (this.canceled) {
+                return;
+            }
+
+            this.metrics.recordResponse(json.length());
+            long queuedAt = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                this.metrics.recordEdtDelay(System.nanoTime() - queuedAt);
+                this.callback.success(json);
+            });
         }
 
         public void failure(String response) {
-            SwingUtilities.invokeLater(() -> this.callback.failure(-1, response));
+            if (!this.canceled) {
+                this.metrics.recordFailure();
+                SwingUtilities.invokeLater(() -> this.callback.failure(-1, response));
+            }
+        }
+
+        public boolean isCanceled() {
+            return this.canceled;
+        }
+
+        /**
+         * Registriert eine Aktion, die laufende Arbeit (Downloads, Dateisystemscans) beim Abbruch der Anfrage beendet.
+         * Ist die Anfrage bereits abgebrochen, wird die Aktion sofort ausgeführt.
+         */
+        public void onCancel(Runnable listener) {
+            this.cancelListeners.add(listener);
+            if (this.canceled && this.cancelListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+
+        private void cancel() {
+            this.canceled = true;
+            this.metrics.recordCanceled();
+            for (Runnable listener : this.cancelListeners) {
+                if (this.cancelListeners.remove(listener)) {
+                    listener.run();
+                }
+            }
+        }
+
+        private void complete() {
+            this.cancelListeners.clear();
+            this.completionHandler.run();
         }
 
         public CefQueryCallback getCallback() {
@@ -18,54 +18,99 @@
 
 package de.myftb.launcher.cef.schemes;
 
-import de.myftb.launcher.cef.DataResourceHandler;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.Optional;
 
+import org.cef.callback.CefCallback;
+import org.cef.handler.CefResourceHandlerAdapter;
+import org.cef.misc.IntRef;
+import org.cef.misc.StringRef;
+import org.cef.network.CefRequest;
+import org.cef.network.CefResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class LauncherScheme extends DataResourceHandler {
+/**
+ * Liefert die Launcher-UI aus dem {@link WebrootCache}. Für jede Anfrage wird eine eigene Instanz erzeugt.
+ * Da sich die Dateien während der Laufzeit nicht ändern, beantwortet eine Revalidierung per {@code If-None-Match} die Anfrage ohne Inhalt.
+ */
+public class LauncherScheme extends CefResourceHandlerAdapter {
     private static final Logger log = LoggerFactory.getLogger(LauncherScheme.class);
-    private static final Map<String, String> mimeTypeMap = new HashMap<>();
 
-    @Override
-    protected void fillDataForRequest(String path, Consumer<String> mimeTypeSetter, Consumer<byte[]> dataSetter) {
-        if (path.isEmpty()) {
-            path = "index.html";
-        }
+    private WebrootCache.Asset asset;
+    private byte[] data = new byte[0];
+    private boolean gzip = false;
+    private boolean notModified = false;
+    private int offset = 0;
 
-        mimeTypeSetter.accept(LauncherScheme.mimeTypeMap.getOrDefault(path.substring(path.lastIndexOf('.') + 1), "text/plain"));
+    @Override
+    public boolean processRequest(CefRequest request, CefCallback callback) {
+        try {
+            Optional<WebrootCache.Asset> asset = WebrootCache.getAsset(new URI(request.getURL()).getPath().substring(1));
+            if (asset.isPresent()) {
+                Map<String, String> requestHeaders = new HashMap<>();
+                request.getHeaderMap(requestHeaders);
 
-        try (InputStream inputStream = LauncherScheme.class.getResourceAsStream("/webroot/" + path)) {
-            if (inputStream == null) {
-                dataSetter.accept(new byte[0]);
-                return;
+                this.asset = asset.get();
+                this.notModified = this.asset.getEtag().equals(LauncherScheme.getHeader(requestHeaders, "If-None-Match"));
+                this.gzip = this.asset.getGzipData().isPresent()
+                        && LauncherScheme.getHeader(requestHeaders, "Accept-Encoding").contains("gzip");
+                if (!this.notModified) {
+                    this.data = this.gzip ? this.asset.getGzipData().get() : this.asset.getData();
+                }
             }
 
-            try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-                int read;
-                byte[] buffer = new byte[1024];
-                while ((read = inputStream.read(buffer, 0, buffer.length)) != -1) {
-                    byteArrayOutputStream.write(buffer, 0, read);
-                }
+            callback.Continue();
+            return true;
+        } catch (URISyntaxException e) {
+            LauncherScheme.log.warn("Fehler beim Lesen der Request URI", e);
+            return false;
+        }
+    }
 
-                dataSetter.accept(byteArrayOutputStream.toByteArray());
-            }
-        } catch (IOException e) {
-            LauncherScheme.log.warn("Fehler beim Laden von Launcher-Content", e);
+    private static String getHeader(Map<String, String> headers, String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse("");
+    }
+
+    @Override
+    public void getResponseHeaders(CefResponse response, IntRef responseLength, StringRef redirectUrl) {
+        if (this.asset == null) {
+            response.setStatus(404);
+            responseLength.set(0);
+            return;
         }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", this.asset.getEtag());
+        headers.put("Cache-Control", "no-cache");
+        if (this.gzip && !this.notModified) {
+            headers.put("Content-Encoding", "gzip");
+        }
+        response.setHeaderMap(headers);
+        response.setMimeType(this.asset.getMimeType());
+        response.setStatus(this.notModified ? 304 : 200);
+        responseLength.set(this.data.length);
     }
 
-    static {
-        mimeTypeMap.put("html", "text/html");
-        mimeTypeMap.put("js", "text/javascript");
-        mimeTypeMap.put("png", "image/png");
+    @Override
+    public boolean readResponse(byte[] dataOut, int bytesToRead, IntRef bytesRead, CefCallback callback) {
+        if (this.offset >= this.data.length) {
+            bytesRead.set(0);
+            return false;
+        }
+
+        int length = Math.min(bytesToRead, this.data.length - this.offset);
+        System.arraycopy(this.data, this.offset, dataOut, 0, length);
+        this.offset += length;
+        bytesRead.set(length);
+        return true;
     }
 
 }
@@ -18,56 +18,47 @@
 
 package de.myftb.launcher.cef.schemes;
 
-import de.myftb.launcher.HttpRequest;
-import de.myftb.launcher.Launcher;
-import de.myftb.launcher.cef.DataResourceHandler;
-import de.myftb.launcher.models.modpacks.ModpackManifestList;
+import de.myftb.launcher.cache.ModpackImageCache;
+import de.myftb.launcher.cef.AsyncResourceHandler;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 
-import org.apache.http.client.HttpResponseException;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.cef.network.CefRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ModpackImageScheme extends DataResourceHandler {
+/**
+ * Liefert Modpacklogos über {@code modpackimage://launcher/<name>}. Mit {@code ?size=<px>} wird eine verkleinerte Variante ausgeliefert.
+ */
+public class ModpackImageScheme extends AsyncResourceHandler {
     private static final Logger log = LoggerFactory.getLogger(ModpackImageScheme.class);
+    private static final int maxSize = 1024;
 
     @Override
-    protected void fillDataForRequest(String path, Consumer<String> mimeTypeSetter, Consumer<byte[]> dataSetter) {
-        mimeTypeSetter.accept("image/png");
-
+    protected Response load(String path, CefRequest request) {
         try {
-            Optional<String> imageLocation = Launcher.getInstance().getRemotePacks().getPackByName(path)
-                    .map(ModpackManifestList.ModpackManifestReference::getLocation)
-                    .map(location -> location.substring(0, location.lastIndexOf('.')) + ".png");
-
-            if (!imageLocation.isPresent()) {
-                dataSetter.accept(new byte[0]);
-                return;
-            }
+            int size = URLEncodedUtils.parse(new URI(request.getURL()), StandardCharsets.UTF_8).stream()
+                    .filter(parameter -> "size".equals(parameter.getName()))
+                    .map(NameValuePair::getValue)
+                    .findFirst()
+                    .map(Integer::parseInt)
+                    .orElse(0);
 
-            File cacheFile = new File(Launcher.getInstance().getSaveSubDirectory("cache"), imageLocation.get());
-            if (!cacheFile.isFile() || (System.currentTimeMillis() - cacheFile.lastModified()) >= TimeUnit.DAYS.toMillis(3)) {
-                HttpRequest.get("https://launcher.myftb.de/images/" + imageLocation.get())
-                        .execute()
-                        .saveContent(cacheFile);
+            Optional<byte[]> image = ModpackImageCache.getImage(path, Math.max(0, Math.min(size, ModpackImageScheme.maxSize)));
+            if (image.isPresent()) {
+                return Response.of("image/png", image.get()).header("Cache-Control", "max-age=300");
             }
-
-            if (cacheFile.isFile()) {
-                dataSetter.accept(Files.readAllBytes(cacheFile.toPath()));
-            }
-        } catch (HttpResponseException e) {
-            if (e.getStatusCode() != 404) {
-                ModpackImageScheme.log.warn("Fehler beim Abrufen von Modpacklogo für " + path, e);
-            }
-        } catch (IOException e) {
+        } catch (IOException | URISyntaxException | NumberFormatException e) {
             ModpackImageScheme.log.warn("Fehler beim Abrufen von Modpacklogo für " + path, e);
         }
+
+        return Response.notFound();
     }
 
 }
@@ -18,6 +18,9 @@
 
 package de.myftb.launcher.cef.schemes;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
@@ -29,7 +32,8 @@ import com.mojang.util.UUIDTypeAdapter;
 
 import de.myftb.launcher.HttpRequest;
 import de.myftb.launcher.Launcher;
-import de.myftb.launcher.cef.DataResourceHandler;
+import de.myftb.launcher.cache.DiskCache;
+import de.myftb.launcher.cef.AsyncResourceHandler;
 
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
@@ -41,49 +45,70 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 import javax.imageio.ImageIO;
 
 import org.apache.commons.codec.Charsets;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.http.HttpResponse;
+import org.cef.network.CefRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PlayerHeadScheme extends DataResourceHandler {
+public class PlayerHeadScheme extends AsyncResourceHandler {
     private static final Logger log = LoggerFactory.getLogger(PlayerHeadScheme.class);
-    private static final Map<String, byte[]> skinCache = new HashMap<>();
     private static final int targetSize = 256;
+    private static final ExecutorService loaderPool = AsyncResourceHandler.newLoaderPool("PlayerHeadLoader", 2);
+
+    /**
+     * Gleichzeitige Anfragen nach demselben Kopf lösen nur einen Ladevorgang aus. Nach einer Stunde wird ein Eintrag im Hintergrund
+     * aktualisiert, bis dahin wird weiter der bisherige Kopf ausgeliefert.
+     */
+    private static final LoadingCache<String, byte[]> skinCache = CacheBuilder.newBuilder()
+            .maximumSize(256)
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .refreshAfterWrite(1, TimeUnit.HOURS)
+            .build(CacheLoader.asyncReloading(CacheLoader.from(PlayerHeadScheme::getSkin), Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "PlayerHead-Refresh");
+                thread.setDaemon(true);
+                return thread;
+            })));
 
     @Override
-    protected void fillDataForRequest(String path, Consumer<String> mimeTypeSetter, Consumer<byte[]> dataSetter) {
+    protected ExecutorService getLoaderPool() {
+        return PlayerHeadScheme.loaderPool;
+    }
+
+    @Override
+    protected Response load(String path, CefRequest request) {
         path = path.replace("-", "");
-        mimeTypeSetter.accept("image/png");
 
         if (path.length() == 32) {
-            dataSetter.accept(PlayerHeadScheme.skinCache.computeIfAbsent(path, this::getSkin));
+            return Response.of("image/png", PlayerHeadScheme.skinCache.getUnchecked(path));
         } else {
-            dataSetter.accept(new byte[0]);
+            return Response.notFound();
         }
     }
 
-    private byte[] getSkin(String uuid) {
+    private static byte[] getSkin(String uuid) {
         try {
-            File cacheFile = new File(Launcher.getInstance().getSaveSubDirectory("cache"), uuid + ".png");
-            if (!cacheFile.isFile() || (System.currentTimeMillis() - cacheFile.lastModified()) >= TimeUnit.DAYS.toMillis(1)) {
-                byte[] skin = this.getRemoteSkin(uuid);
+            DiskCache diskCache = Launcher.getInstance().getDiskCache();
+            Optional<File> cacheFile = diskCache.get(DiskCache.playerHeads, uuid + ".png");
+            if (!cacheFile.isPresent() || (System.currentTimeMillis() - cacheFile.get().lastModified()) >= TimeUnit.DAYS.toMillis(1)) {
+                byte[] skin = PlayerHeadScheme.getRemoteSkin(uuid);
                 if (skin.length > 0) {
-                    Files.write(cacheFile.toPath(), skin);
+                    diskCache.put(DiskCache.playerHeads, uuid + ".png", skin);
+                    return skin;
                 }
-                return skin;
+                // Ist Mojang nicht erreichbar, bleibt der veraltete Kopf vom Datenträger besser als keiner
             }
 
-            if (cacheFile.isFile()) {
-                return Files.readAllBytes(cacheFile.toPath());
+            if (cacheFile.isPresent()) {
+                return Files.readAllBytes(cacheFile.get().toPath());
             }
 
             return new byte[0];
@@ -93,9 +118,9 @@ public class PlayerHeadScheme extends DataResourceHandler {
         }
     }
 
-    private byte[] getRemoteSkin(String uuid) {
+    private static byte[] getRemoteSkin(String uuid) {
         try {
-            HttpResponse response = HttpRequest.get("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid)
+            HttpResponse response = HttpRequest.getResource("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid)
                     .execute()
                     .returnResponse();
 
@@ -120,7 +145,7 @@ public class PlayerHeadScheme extends DataResourceHandler {
                     MinecraftProfileTexture skin = textures.getTextures().get(MinecraftProfileTexture.Type.SKIN);
                     URI skinUri = new URI(skin.getUrl());
                     if (skinUri.getHost().endsWith(".mojang.com") || skinUri.getHost().endsWith(".minecraft.net")) {
-                        HttpResponse skinResponse = HttpRequest.get(skinUri)
+                        HttpResponse skinResponse = HttpRequest.getResource(skinUri)
                                 .execute()
                                 .returnResponse();
 
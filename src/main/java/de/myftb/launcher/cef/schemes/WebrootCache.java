@@ -0,0 +1,149 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.cef.schemes;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hält die Dateien der Launcher-UI aus {@code /webroot} nach dem ersten Zugriff unveränderlich im Speicher.
+ * Optional wird zusätzlich eine gzip-komprimierte Variante vorgehalten ({@code -Dlauncher.webroot.gzip=true}).
+ */
+public class WebrootCache {
+    private static final Logger log = LoggerFactory.getLogger(WebrootCache.class);
+    private static final boolean precompress = Boolean.getBoolean("launcher.webroot.gzip");
+    private static final Map<String, String> mimeTypeMap = ImmutableMap.<String, String>builder()
+            .put("html", "text/html; charset=utf-8")
+            .put("htm", "text/html; charset=utf-8")
+            .put("js", "text/javascript; charset=utf-8")
+            .put("mjs", "text/javascript; charset=utf-8")
+            .put("map", "application/json; charset=utf-8")
+            .put("json", "application/json; charset=utf-8")
+            .put("css", "text/css; charset=utf-8")
+            .put("txt", "text/plain; charset=utf-8")
+            .put("svg", "image/svg+xml")
+            .put("png", "image/png")
+            .put("jpg", "image/jpeg")
+            .put("jpeg", "image/jpeg")
+            .put("gif", "image/gif")
+            .put("webp", "image/webp")
+            .put("ico", "image/x-icon")
+            .put("woff", "font/woff")
+            .put("woff2", "font/woff2")
+            .put("ttf", "font/ttf")
+            .put("otf", "font/otf")
+            .put("eot", "application/vnd.ms-fontobject")
+            .put("mp3", "audio/mpeg")
+            .put("ogg", "audio/ogg")
+            .put("wav", "audio/wav")
+            .build();
+    private static final Map<String, Optional<Asset>> assets = new ConcurrentHashMap<>();
+
+    public static Optional<Asset> getAsset(String path) {
+        if (path.isEmpty()) {
+            path = "index.html";
+        }
+
+        if (path.contains("..")) {
+            return Optional.empty();
+        }
+
+        return WebrootCache.assets.computeIfAbsent(path, WebrootCache::loadAsset);
+    }
+
+    public static String getMimeType(String path) {
+        return WebrootCache.mimeTypeMap.getOrDefault(path.substring(path.lastIndexOf('.') + 1).toLowerCase(), "application/octet-stream");
+    }
+
+    private static Optional<Asset> loadAsset(String path) {
+        try (InputStream inputStream = WebrootCache.class.getResourceAsStream("/webroot/" + path)) {
+            if (inputStream == null) {
+                return Optional.empty();
+            }
+
+            byte[] data = ByteStreams.toByteArray(inputStream);
+            byte[] gzipData = null;
+            if (WebrootCache.precompress && WebrootCache.isCompressible(path)) {
+                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(data.length / 3);
+                try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                    gzipOutputStream.write(data);
+                }
+                if (byteArrayOutputStream.size() < data.length) {
+                    gzipData = byteArrayOutputStream.toByteArray();
+                }
+            }
+
+            return Optional.of(new Asset(WebrootCache.getMimeType(path), data, gzipData, '"' + DigestUtils.sha1Hex(data) + '"'));
+        } catch (IOException e) {
+            WebrootCache.log.warn("Fehler beim Laden von Launcher-Content " + path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isCompressible(String path) {
+        String mimeType = WebrootCache.getMimeType(path);
+        return mimeType.startsWith("text/") || mimeType.startsWith("application/json") || mimeType.equals("image/svg+xml");
+    }
+
+    public static class Asset {
+        private final String mimeType;
+        private final byte[] data;
+        private final byte[] gzipData;
+        private final String etag;
+
+        private Asset(String mimeType, byte[] data, byte[] gzipData, String etag) {
+            this.mimeType = mimeType;
+            this.data = data;
+            this.gzipData = gzipData;
+            this.etag = etag;
+        }
+
+        public String getMimeType() {
+            return this.mimeType;
+        }
+
+        /**
+         * Liefert die unkomprimierten Daten. Das Array wird zwischen allen Anfragen geteilt und darf nicht verändert werden.
+         */
+        public byte[] getData() {
+            return this.data;
+        }
+
+        public Optional<byte[]> getGzipData() {
+            return Optional.ofNullable(this.gzipData);
+        }
+
+        public String getEtag() {
+            return this.etag;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Sucht gleichzeitig nach mehreren ASCII-Mustern in einem Text.
+ * Der Automat wird vollständig als Übergangstabelle aufgebaut, sodass jedes Zeichen unabhängig von Anzahl und Länge der Muster
+ * genau einen Tabellenzugriff kostet.
+ */
+public class AhoCorasickMatcher {
+    private final int[] alphabet = new int[128];
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    public AhoCorasickMatcher(List<String> patterns) {
+        int alphabetSize = 1; // 0 für alle Zeichen, die in keinem Muster vorkommen
+        int stateCount = 1;
+        for (String pattern : patterns) {
+            for (char c : pattern.toCharArray()) {
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Nur ASCII-Muster werden unterstützt: " + pattern);
+                }
+                if (this.alphabet[c] == 0) {
+                    this.alphabet[c] = alphabetSize++;
+                }
+            }
+            stateCount += pattern.length();
+        }
+
+        // Trie aufbauen, -1 für fehlende Übergänge
+        int[][] trie = new int[stateCount][alphabetSize];
+        for (int[] row : trie) {
+            Arrays.fill(row, -1);
+        }
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        stateOutputs.add(new ArrayList<>());
+        int states = 1;
+        for (int i = 0; i < patterns.size(); i++) {
+            int state = 0;
+            for (char c : patterns.get(i).toCharArray()) {
+                int symbol = this.alphabet[c];
+                if (trie[state][symbol] == -1) {
+                    trie[state][symbol] = states++;
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = trie[state][symbol];
+            }
+            stateOutputs.get(state).add(i);
+        }
+
+        // Fehlerübergänge per Breitensuche in die Übergangstabelle einrechnen
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            if (trie[0][symbol] == -1) {
+                trie[0][symbol] = 0;
+            } else {
+                fail[trie[0][symbol]] = 0;
+                queue.add(trie[0][symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie[state][symbol];
+                if (next == -1) {
+                    trie[state][symbol] = trie[fail[state]][symbol];
+                } else {
+                    fail[next] = trie[fail[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, states);
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            this.outputs[state] = stateOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Durchsucht einen Text und meldet für jedes Vorkommen eines Musters dessen Index.
+     *
+     * @param text Text
+     * @param matchConsumer Empfänger der Musterindizes
+     */
+    public void search(CharSequence text, IntConsumer matchConsumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = this.transitions[state][c < 128 ? this.alphabet[c] : 0];
+            for (int pattern : this.outputs[state]) {
+                matchConsumer.accept(pattern);
+            }
+        }
+    }
+
+}
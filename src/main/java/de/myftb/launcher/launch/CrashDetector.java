@@ -0,0 +1,83 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.Diagnosis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Erkennt bekannte Fehlerbilder ({@link CrashSignature}) live in der Ausgabe eines Spiels und meldet sie über das Topic "game_diagnosis".
+ * Alle Muster werden gemeinsam mit einem {@link AhoCorasickMatcher} durchsucht.
+ */
+class CrashDetector {
+    private static final AhoCorasickMatcher matcher;
+    private static final List<CrashSignature> patternSignatures = new ArrayList<>();
+
+    static {
+        List<String> patterns = new ArrayList<>();
+        for (CrashSignature signature : CrashSignature.values()) {
+            for (String pattern : signature.getPatterns()) {
+                patterns.add(pattern);
+                CrashDetector.patternSignatures.add(signature);
+            }
+        }
+        matcher = new AhoCorasickMatcher(patterns);
+    }
+
+    private final GameInstance instance;
+    private final Map<CrashSignature, Diagnosis> diagnoses = new EnumMap<>(CrashSignature.class);
+
+    CrashDetector(GameInstance instance) {
+        this.instance = instance;
+    }
+
+    void onLogLine(LogLine line) {
+        CrashDetector.matcher.search(line.getText(), pattern -> this.report(CrashDetector.patternSignatures.get(pattern), line));
+    }
+
+    private synchronized void report(CrashSignature signature, LogLine line) {
+        Diagnosis diagnosis = this.diagnoses.get(signature);
+        if (diagnosis != null) {
+            diagnosis.increment();
+            return;
+        }
+
+        diagnosis = new Diagnosis(signature.name().toLowerCase(Locale.ROOT), signature.getSeverity().name().toLowerCase(Locale.ROOT), signature.getTitle(),
+                signature.getHint(), line.getText());
+        this.diagnoses.put(signature, diagnosis);
+
+        Launcher.getInstance().getIpcHandler().send("game_diagnosis", ImmutableMap.of("instance", this.instance.getId(),
+                "title", this.instance.getModpackManifest().getTitle(), "diagnosis", diagnosis));
+        Launcher.getInstance().getProcessSupervisor().publishInstances();
+    }
+
+    synchronized List<Diagnosis> getDiagnoses() {
+        return Collections.unmodifiableList(new ArrayList<>(this.diagnoses.values()));
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bekannte Fehlerbilder in der Ausgabe eines Spiels samt der Textstellen, an denen sie erkannt werden.
+ */
+public enum CrashSignature {
+    OUT_OF_MEMORY(Severity.ERROR, "Zu wenig Arbeitsspeicher",
+            "Dem Spiel ist der Arbeitsspeicher ausgegangen. Erhöhe den maximalen Arbeitsspeicher in den Einstellungen.",
+            "java.lang.OutOfMemoryError", "There is insufficient memory for the Java Runtime Environment"),
+    MISSING_DEPENDENCY(Severity.ERROR, "Fehlende Mod-Abhängigkeit",
+            "Eine Mod benötigt eine andere Mod, die nicht installiert ist. Installiere das Modpack erneut oder entferne selbst hinzugefügte Mods.",
+            "MissingModsException", "Missing Mods:", "is missing mandatory dependency", "Unmet dependency listing",
+            "requires any version of", "Incompatible mod set"),
+    MIXIN_CONFLICT(Severity.ERROR, "Mixin-Konflikt",
+            "Zwei Mods verändern denselben Code auf unverträgliche Weise. Entferne zuletzt hinzugefügte Mods.",
+            "MixinTransformerError", "Mixin apply failed", "InvalidMixinException", "Critical injection failure"),
+    GL_ERROR(Severity.ERROR, "Grafikfehler",
+            "Es ist ein OpenGL-Fehler aufgetreten. Aktualisiere deinen Grafiktreiber.",
+            "Pixel format not accelerated", "GLFW error", "LWJGLException", "OpenGL Error", "Could not create context"),
+    TICK_LAG(Severity.WARNING, "Server kommt nicht hinterher",
+            "Der integrierte Server ist überlastet. Mehr Arbeitsspeicher oder eine geringere Sichtweite können helfen.",
+            "Can't keep up!"),
+    GAME_CRASHED(Severity.ERROR, "Das Spiel ist abgestürzt",
+            "Minecraft hat einen Absturzbericht erstellt. Dieser kann über das Kontextmenü des Modpacks geöffnet werden.",
+            "#@!@# Game crashed!", "This crash report has been saved to:");
+
+    private final Severity severity;
+    private final String title;
+    private final String hint;
+    private final List<String> patterns;
+
+    CrashSignature(Severity severity, String title, String hint, String... patterns) {
+        this.severity = severity;
+        this.title = title;
+        this.hint = hint;
+        this.patterns = Arrays.asList(patterns);
+    }
+
+    public Severity getSeverity() {
+        return this.severity;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getHint() {
+        return this.hint;
+    }
+
+    public List<String> getPatterns() {
+        return this.patterns;
+    }
+
+    public enum Severity {
+        WARNING,
+        ERROR
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.Diagnosis;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ein vom Launcher gestartetes Spiel mit eigenem Log, Zustand und Prozess.
+ */
+public class GameInstance {
+    private final String id;
+    private final ModpackManifest modpackManifest;
+    private final LogCollector logCollector = new LogCollector();
+    private final CrashDetector crashDetector = new CrashDetector(this);
+    private final LogThrottle logThrottle = new LogThrottle(Launcher.getInstance().getConfig().getLogRateLimits());
+    private volatile State state = State.STARTING;
+    private volatile Process process;
+    private long pid = -1;
+    private final long startTime = System.currentTimeMillis();
+    private volatile long endTime = -1;
+    private volatile int exitCode = -1;
+    private ResourceMonitor resourceMonitor;
+    private SessionLogStore logStore;
+
+    GameInstance(ModpackManifest modpackManifest) {
+        this.id = modpackManifest.getName();
+        this.modpackManifest = modpackManifest;
+    }
+
+    void setProcess(Process process) {
+        this.process = process;
+        this.pid = GameInstance.getPid(process);
+        this.state = State.RUNNING;
+    }
+
+    void setExited(int exitCode) {
+        this.exitCode = exitCode;
+        this.endTime = System.currentTimeMillis();
+        this.state = State.EXITED;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public ModpackManifest getModpackManifest() {
+        return this.modpackManifest;
+    }
+
+    public LogCollector getLogCollector() {
+        return this.logCollector;
+    }
+
+    public Optional<SessionLogStore> getLogStore() {
+        return Optional.ofNullable(this.logStore);
+    }
+
+    void setLogStore(SessionLogStore logStore) {
+        this.logStore = logStore;
+    }
+
+    /**
+     * Verarbeitet eine Ausgabezeile des Spiels. Fehlererkennung und Sitzungslog erhalten jede Zeile, begrenzt wird nur die Ausgabe
+     * an die Konsole der UI.
+     *
+     * @param line Zeile aus stdout oder stderr
+     */
+    void onLogLine(LogLine line) {
+        this.crashDetector.onLogLine(line);
+        if (this.logStore != null) {
+            this.logStore.append(line);
+        }
+        this.logThrottle.accept(line, this.logCollector::log);
+    }
+
+    /**
+     * Gibt zurückgehaltene Wiederholungen aus, nachdem der Prozess beendet wurde.
+     */
+    void flushLog() {
+        this.logThrottle.flush(this.logCollector::log);
+    }
+
+    /**
+     * Gibt die bisher in der Ausgabe erkannten Fehlerbilder zurück.
+     *
+     * @return Fehlerbilder in der Reihenfolge von {@link CrashSignature}
+     */
+    public List<Diagnosis> getDiagnoses() {
+        return this.crashDetector.getDiagnoses();
+    }
+
+    public long getDroppedLogBytes() {
+        return this.logThrottle.getDroppedBytes();
+    }
+
+    public long getDroppedLogLines() {
+        return this.logThrottle.getDroppedLines();
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    public boolean isAlive() {
+        return this.state != State.EXITED;
+    }
+
+    public Process getProcess() {
+        return this.process;
+    }
+
+    /**
+     * Gibt die Prozess-ID des Spiels zurück, sofern diese auf der verwendeten Java-Version ermittelt werden kann.
+     *
+     * @return Prozess-ID oder -1
+     */
+    public long getPid() {
+        return this.pid;
+    }
+
+    public Optional<ResourceMonitor> getResourceMonitor() {
+        return Optional.ofNullable(this.resourceMonitor);
+    }
+
+    void setResourceMonitor(ResourceMonitor resourceMonitor) {
+        this.resourceMonitor = resourceMonitor;
+    }
+
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    public int getExitCode() {
+        return this.exitCode;
+    }
+
+    /**
+     * Gibt die Laufzeit des Spiels in Millisekunden zurück.
+     *
+     * @return Laufzeit bis jetzt bzw. bis zum Beenden
+     */
+    public long getUptime() {
+        return (this.endTime == -1 ? System.currentTimeMillis() : this.endTime) - this.startTime;
+    }
+
+    /**
+     * Beendet den Prozess des Spiels.
+     *
+     * @return {@code true}, wenn ein laufender Prozess beendet wurde
+     */
+    public boolean kill() {
+        if (this.process != null && this.isAlive()) {
+            this.process.destroy();
+            return true;
+        }
+        return false;
+    }
+
+    private static long getPid(Process process) {
+        try {
+            Method pidMethod = Process.class.getMethod("pid");
+            return (long) pidMethod.invoke(process);
+        } catch (ReflectiveOperationException e) {
+            // Java 8
+        }
+
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+            return pidField.getInt(process);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    public enum State {
+        STARTING,
+        RUNNING,
+        EXITED
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.GcSummary;
+import de.myftb.launcher.models.launcher.JvmProfile;
+import de.myftb.launcher.models.launcher.LauncherConfig;
+import de.myftb.launcher.models.launcher.Platform;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Timer;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aktiviert das GC-Logging für gestartete Modpacks, wertet dieses aus und leitet daraus Einstellungen für den nächsten Start ab.
+ */
+public class GcAdvisor {
+    private static final Logger log = LoggerFactory.getLogger(GcAdvisor.class);
+    private static final Timer timer = new Timer("GcLogAnalyzer", true);
+    private static final long updateInterval = TimeUnit.SECONDS.toMillis(15);
+    private static final long minimumSessionSeconds = TimeUnit.MINUTES.toSeconds(5);
+    private static final long minimumGcCount = 10;
+
+    public static File getLogFile(ModpackManifest manifest) {
+        return new File(manifest.getInstanceDir(), "logs/launcher-gc.log");
+    }
+
+    private static File getSummaryFile(ModpackManifest manifest) {
+        return new File(manifest.getInstanceDir(), "gc-summary.json");
+    }
+
+    /**
+     * Gibt die JVM-Argumente zum Schreiben des GC-Logs für die Java-Installation des Launchers zurück.
+     *
+     * @param logFile Zieldatei des GC-Logs
+     * @return JVM-Argumente
+     */
+    public static List<String> getLoggingArguments(File logFile) {
+        if (System.getProperty("java.specification.version").startsWith("1.")) {
+            return Arrays.asList("-Xloggc:" + logFile.getAbsolutePath(), "-XX:+PrintGC", "-XX:+PrintGCTimeStamps");
+        }
+
+        return Collections.singletonList("-Xlog:gc:file=\"" + logFile.getAbsolutePath() + "\":uptime");
+    }
+
+    public static GcLogAnalyzer startTracking(File logFile) {
+        GcLogAnalyzer analyzer = new GcLogAnalyzer(logFile);
+        GcAdvisor.timer.schedule(analyzer, GcAdvisor.updateInterval, GcAdvisor.updateInterval);
+        return analyzer;
+    }
+
+    /**
+     * Beendet die Auswertung einer Sitzung und speichert die Zusammenfassung im Instanzverzeichnis.
+     * Ist {@link LauncherConfig#isGcAutoTune()} aktiv, wird die Empfehlung direkt für den nächsten Start übernommen.
+     *
+     * @param manifest Gestartetes Modpack
+     * @param analyzer Auswertung der Sitzung
+     * @param sessionSeconds Dauer der Sitzung in Sekunden
+     */
+    public static void finishTracking(ModpackManifest manifest, GcLogAnalyzer analyzer, long sessionSeconds) {
+        analyzer.cancel();
+        analyzer.update();
+
+        GcSummary summary = analyzer.getSummary(sessionSeconds);
+        if (summary.getSessionSeconds() < GcAdvisor.minimumSessionSeconds || summary.getGcCount() < GcAdvisor.minimumGcCount) {
+            GcAdvisor.log.info("Sitzung von {} zu kurz für eine Speicherempfehlung", manifest.getName());
+            return;
+        }
+
+        summary.setSessions(GcAdvisor.getSummary(manifest).map(GcSummary::getSessions).orElse(0) + 1);
+        GcAdvisor.recommend(manifest, summary);
+        GcAdvisor.log.info("GC-Auswertung für {}: Live-Set {} MB, Pausen p99 {} ms, Allokationsrate {} MB/s, Empfehlung {} MB mit {}",
+                manifest.getName(), summary.getPeakLiveSet(), String.format("%.1f", summary.getPauseP99()),
+                String.format("%.1f", summary.getAllocationRate()), summary.getRecommendedMemory(), summary.getRecommendedProfile());
+
+        try {
+            LaunchHelper.mapper.writeValue(GcAdvisor.getSummaryFile(manifest), summary);
+        } catch (IOException e) {
+            GcAdvisor.log.warn("Fehler beim Speichern der GC-Auswertung für " + manifest.getName(), e);
+        }
+
+        LauncherConfig config = Launcher.getInstance().getConfig();
+        if (config.isGcAutoTune()) {
+            config.setPackMemory(manifest.getName(), summary.getRecommendedMemory());
+            config.setJvmProfile(manifest.getName(), summary.getRecommendedProfile());
+            Launcher.getInstance().saveConfig();
+        }
+    }
+
+    public static Optional<GcSummary> getSummary(ModpackManifest manifest) {
+        File summaryFile = GcAdvisor.getSummaryFile(manifest);
+        if (!summaryFile.isFile()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(LaunchHelper.mapper.readValue(summaryFile, GcSummary.class));
+        } catch (IOException e) {
+            GcAdvisor.log.warn("Fehler beim Lesen der GC-Auswertung für " + manifest.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static void recommend(ModpackManifest manifest, GcSummary summary) {
+        // Faustregel: Heap als 1,75-faches des Live-Sets plus Reserve für Lastspitzen beim Laden neuer Chunks
+        long target = summary.getPeakLiveSet() * 7 / 4 + 512;
+        if (summary.getFullGcCount() > 0 && summary.getPeakLiveSet() >= summary.getHeapCapacity() * 9 / 10) {
+            target = Math.max(target, summary.getHeapCapacity() * 5 / 4); // Heap war zu klein
+        }
+
+        int memory = JvmProfile.clampHeap((int) ((target + 511) / 512 * 512), Platform.getPhysicalMemory());
+
+        JvmProfile profile = Launcher.getInstance().getConfig().getJvmProfile(manifest.getName());
+        if (memory >= 12288) {
+            profile = JvmProfile.G1_LARGE_HEAP;
+        } else if (profile == JvmProfile.DEFAULT && summary.getPauseP99() > 100) {
+            profile = JvmProfile.G1_LOW_LATENCY;
+        }
+
+        summary.setRecommendation(memory, profile);
+    }
+
+}
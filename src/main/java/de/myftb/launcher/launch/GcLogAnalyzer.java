@@ -0,0 +1,177 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.Histogram;
+import de.myftb.launcher.models.launcher.GcSummary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.TimerTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Liest ein GC-Log inkrementell ein, sowohl im Unified Logging Format (Java 9+) als auch im Format von {@code -Xloggc} (Java 8).
+ * Es werden ausschließlich Pausen mit Heapbelegung vor und nach der Collection ausgewertet.
+ */
+public class GcLogAnalyzer extends TimerTask {
+    private static final Logger log = LoggerFactory.getLogger(GcLogAnalyzer.class);
+
+    // [12.345s][info][gc] GC(3) Pause Young (Normal) (G1 Evacuation Pause) 24M->4M(256M) 3.456ms
+    private static final Pattern unifiedPattern = Pattern.compile(
+            "^\\[([\\d.]+)s\\].*?Pause.*?(\\d+)([KMG])->(\\d+)([KMG])\\((\\d+)([KMG])\\) ([\\d.]+)ms");
+    // 12.345: [GC pause (G1 Evacuation Pause) (young) 24M->4096K(256M), 0.0034567 secs]
+    private static final Pattern legacyPattern = Pattern.compile(
+            "^([\\d.]+): \\[.*?([\\d.]+)([KMG])->([\\d.]+)([KMG])\\(([\\d.]+)([KMG])\\), ([\\d.]+) secs\\]");
+
+    private final File logFile;
+    private long offset = 0;
+
+    private final Histogram pauses = new Histogram();
+    private long fullGcCount = 0;
+    private double firstTimestamp = -1;
+    private double lastTimestamp = 0;
+    private double previousAfter = -1;
+    private double allocated = 0;
+    private double peakLiveSet = -1;
+    private double peakAfter = 0;
+    private double cycleMinimum = -1;
+    private double heapCapacity = 0;
+
+    public GcLogAnalyzer(File logFile) {
+        this.logFile = logFile;
+    }
+
+    @Override
+    public void run() {
+        this.update();
+    }
+
+    /**
+     * Liest alle seit dem letzten Aufruf vollständig geschriebenen Zeilen ein.
+     */
+    public synchronized void update() {
+        if (!this.logFile.isFile() || this.logFile.length() <= this.offset) {
+            return;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(this.logFile, "r")) {
+            file.seek(this.offset);
+            byte[] buffer = new byte[(int) Math.min(file.length() - this.offset, 1 << 20)];
+            file.readFully(buffer);
+
+            int lineStart = 0;
+            for (int i = 0; i < buffer.length; i++) {
+                if (buffer[i] == '\n') {
+                    this.parseLine(new String(buffer, lineStart, i - lineStart, StandardCharsets.US_ASCII));
+                    lineStart = i + 1;
+                }
+            }
+
+            this.offset += lineStart;
+        } catch (IOException e) {
+            GcLogAnalyzer.log.warn("Fehler beim Lesen des GC-Logs " + this.logFile.getAbsolutePath(), e);
+        }
+    }
+
+    private void parseLine(String line) {
+        if (GcLogAnalyzer.isCycleStart(line)) {
+            // Nach einem vollständigen Markierungszyklus ist der geringste Stand nach einer Pause die beste Schätzung des Live-Sets
+            if (this.cycleMinimum >= 0) {
+                this.peakLiveSet = Math.max(this.peakLiveSet, this.cycleMinimum);
+            }
+            this.cycleMinimum = -1;
+        }
+
+        Matcher matcher = GcLogAnalyzer.unifiedPattern.matcher(line);
+        double pause;
+        if (matcher.find()) {
+            pause = Double.parseDouble(matcher.group(8));
+        } else if ((matcher = GcLogAnalyzer.legacyPattern.matcher(line)).find()) {
+            pause = Double.parseDouble(matcher.group(8)) * 1000;
+        } else {
+            return;
+        }
+
+        double timestamp = Double.parseDouble(matcher.group(1));
+        double before = GcLogAnalyzer.toMegabytes(matcher.group(2), matcher.group(3));
+        double after = GcLogAnalyzer.toMegabytes(matcher.group(4), matcher.group(5));
+        double capacity = GcLogAnalyzer.toMegabytes(matcher.group(6), matcher.group(7));
+
+        if (this.firstTimestamp < 0) {
+            this.firstTimestamp = timestamp;
+        }
+        this.lastTimestamp = timestamp;
+
+        if (this.previousAfter >= 0 && before > this.previousAfter) {
+            this.allocated += before - this.previousAfter;
+        }
+        this.previousAfter = after;
+
+        // Nach einer jungen Pause enthält der Heap noch sämtlichen Müll der alten Generation, nur Full GC, Remark, Cleanup und gemischte
+        // Pausen zeigen tatsächlich lebende Objekte
+        if (GcLogAnalyzer.isLiveSetPause(line)) {
+            this.peakLiveSet = Math.max(this.peakLiveSet, after);
+        }
+        this.cycleMinimum = this.cycleMinimum < 0 ? after : Math.min(this.cycleMinimum, after);
+        this.peakAfter = Math.max(this.peakAfter, after);
+        this.heapCapacity = Math.max(this.heapCapacity, capacity);
+        this.pauses.record(pause);
+        if (line.contains("Full")) {
+            this.fullGcCount++;
+        }
+    }
+
+    private static boolean isCycleStart(String line) {
+        return line.contains("Concurrent Start") || line.contains("initial-mark") || line.contains("Initial Mark");
+    }
+
+    private static boolean isLiveSetPause(String line) {
+        return line.contains("Full") || line.contains("Remark") || line.contains("Cleanup") || line.contains("cleanup")
+                || line.contains("(Mixed)") || line.contains("(mixed)");
+    }
+
+    private static double toMegabytes(String value, String unit) {
+        double number = Double.parseDouble(value);
+        switch (unit) {
+            case "K":
+                return number / 1024;
+            case "G":
+                return number * 1024;
+            default:
+                return number;
+        }
+    }
+
+    public synchronized GcSummary getSummary(long sessionSeconds) {
+        double duration = this.lastTimestamp - Math.max(0, this.firstTimestamp);
+        // Ohne eine einzige aussagekräftige Pause bleibt nur der höchste Stand, die Empfehlung folgt dann dem bisherigen Heap
+        double liveSet = this.peakLiveSet >= 0 ? this.peakLiveSet : this.peakAfter;
+        return new GcSummary(sessionSeconds, this.pauses.getCount(), this.fullGcCount, Math.round(liveSet),
+                Math.round(this.heapCapacity), duration > 0 ? this.allocated / duration : 0, this.pauses.getPercentile(0.5),
+                this.pauses.getPercentile(0.95), this.pauses.getPercentile(0.99), this.pauses.getMax(), this.pauses.getSum());
+    }
+
+}
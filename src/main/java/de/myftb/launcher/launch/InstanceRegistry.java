@@ -0,0 +1,257 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hält die installierten Instanzen im Speicher. Das Instanzverzeichnis wird einmalig eingelesen und anschließend per
+ * {@link WatchService} beobachtet, sodass auch Änderungen außerhalb des Launchers übernommen werden. Installation und Löschen im
+ * Launcher melden sich zusätzlich direkt über {@link #refresh(String)}, damit die UI nicht auf das Dateisystem warten muss.
+ */
+public class InstanceRegistry {
+    private static final Logger log = LoggerFactory.getLogger(InstanceRegistry.class);
+    private static final long debounceMillis = 250;
+
+    private static volatile Snapshot snapshot;
+    private static WatchService watchService;
+
+    public static List<ModpackManifest> getInstances() {
+        return InstanceRegistry.getSnapshot().list;
+    }
+
+    public static Optional<ModpackManifest> get(String name) {
+        return Optional.ofNullable(InstanceRegistry.getSnapshot().byName.get(name));
+    }
+
+    /**
+     * Liest eine einzelne Instanz erneut ein, z.B. nach Installation, Aktualisierung oder Löschen.
+     *
+     * @param name Name des Modpacks, welcher üblicherweise dem Verzeichnisnamen entspricht
+     */
+    public static void refresh(String name) {
+        Snapshot current = InstanceRegistry.getSnapshot();
+        Set<String> directories = new HashSet<>();
+        directories.add(name);
+        current.byDirectory.forEach((directory, manifest) -> {
+            if (manifest.getName().equals(name)) {
+                directories.add(directory);
+            }
+        });
+        InstanceRegistry.update(current.root, directories);
+    }
+
+    /**
+     * Verwirft den Stand und liest das Instanzverzeichnis beim nächsten Zugriff neu ein, z.B. nach Änderung des Speicherverzeichnisses.
+     */
+    public static synchronized void reload() {
+        InstanceRegistry.snapshot = null;
+    }
+
+    private static Snapshot getSnapshot() {
+        Snapshot current = InstanceRegistry.snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (InstanceRegistry.class) {
+            current = InstanceRegistry.snapshot;
+            if (current == null) {
+                File root = Launcher.getInstance().getSaveSubDirectory("instances");
+                current = InstanceRegistry.load(root);
+                InstanceRegistry.snapshot = current;
+                InstanceRegistry.watch(root);
+            }
+            return current;
+        }
+    }
+
+    private static Snapshot load(File root) {
+        Map<String, ModpackManifest> instances = new HashMap<>();
+        File[] instanceDirs = root.listFiles(File::isDirectory);
+        if (instanceDirs != null) {
+            for (File instanceDir : instanceDirs) {
+                InstanceRegistry.read(instanceDir).ifPresent(manifest -> instances.put(instanceDir.getName(), manifest));
+            }
+        }
+
+        InstanceRegistry.log.info("{} installierte Modpacks gefunden", instances.size());
+        return new Snapshot(root, instances);
+    }
+
+    private static synchronized void update(File root, Set<String> directories) {
+        Snapshot current = InstanceRegistry.snapshot;
+        if (current == null || !current.root.equals(root)) {
+            return;
+        }
+
+        Map<String, ModpackManifest> instances = new HashMap<>(current.byDirectory);
+        for (String directory : directories) {
+            instances.remove(directory);
+            InstanceRegistry.read(new File(root, directory)).ifPresent(manifest -> instances.put(directory, manifest));
+        }
+        InstanceRegistry.snapshot = new Snapshot(root, instances);
+    }
+
+    private static Optional<ModpackManifest> read(File instanceDir) {
+        File manifestFile = new File(instanceDir, "manifest.json");
+        File successFile = new File(instanceDir, ".success");
+        if (!successFile.isFile() || !manifestFile.isFile()) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] successBytes = Files.readAllBytes(successFile.toPath());
+            if (successBytes.length == 0 || successBytes[0] == 0) {
+                return Optional.empty();
+            }
+        } catch (IOException e) {
+            InstanceRegistry.log.warn("Fehler beim Lesen von Modpack-Installationsstatus " + successFile.getAbsolutePath(), e);
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(LaunchHelper.mapper.readValue(manifestFile, ModpackManifest.class));
+        } catch (IOException e) {
+            InstanceRegistry.log.warn("Fehler beim Lesen von Modpack-Manifest " + manifestFile.getAbsolutePath(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Beobachtet das Instanzverzeichnis sowie die Wurzel jeder Instanz, in der {@code manifest.json} und {@code .success} liegen.
+     * Ereignisse werden kurz gesammelt, damit eine laufende Installation nicht jede Datei einzeln auslöst.
+     */
+    private static void watch(File root) {
+        try {
+            if (InstanceRegistry.watchService != null) {
+                InstanceRegistry.watchService.close();
+            }
+
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            Path rootPath = root.toPath();
+            rootPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            File[] instanceDirs = root.listFiles(File::isDirectory);
+            if (instanceDirs != null) {
+                for (File instanceDir : instanceDirs) {
+                    InstanceRegistry.register(watchService, instanceDir.toPath());
+                }
+            }
+            InstanceRegistry.watchService = watchService;
+
+            Thread thread = new Thread(() -> InstanceRegistry.processEvents(watchService, root), "InstanceRegistry-Watcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException e) {
+            InstanceRegistry.log.warn("Instanzverzeichnis kann nicht beobachtet werden, externe Änderungen werden erst nach einem Neustart erkannt", e);
+        }
+    }
+
+    private static void register(WatchService watchService, Path instanceDir) throws IOException {
+        instanceDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private static void processEvents(WatchService watchService, File root) {
+        Path rootPath = root.toPath();
+        try {
+            while (true) {
+                Set<String> changed = new HashSet<>();
+                WatchKey key = watchService.take();
+                do {
+                    Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            Optional.ofNullable(rootPath.toFile().list()).ifPresent(names -> Collections.addAll(changed, names));
+                            continue;
+                        }
+
+                        Path context = (Path) event.context();
+                        if (dir.equals(rootPath)) {
+                            changed.add(context.toString());
+                            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(rootPath.resolve(context))) {
+                                try {
+                                    InstanceRegistry.register(watchService, rootPath.resolve(context));
+                                } catch (IOException e) {
+                                    InstanceRegistry.log.warn("Instanz " + context + " kann nicht beobachtet werden", e);
+                                }
+                            }
+                        } else if (context.toString().equals("manifest.json") || context.toString().equals(".success")) {
+                            changed.add(dir.getFileName().toString());
+                        }
+                    }
+                    key.reset();
+                    key = watchService.poll(InstanceRegistry.debounceMillis, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                if (!changed.isEmpty()) {
+                    InstanceRegistry.update(root, changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Verzeichnis wird nicht mehr beobachtet
+        }
+    }
+
+    private static class Snapshot {
+        private final File root;
+        private final Map<String, ModpackManifest> byDirectory;
+        private final Map<String, ModpackManifest> byName;
+        private final List<ModpackManifest> list;
+
+        /**
+         * Erwartet die Instanzen nach Verzeichnisname, da Dateisystemereignisse nur diesen kennen.
+         */
+        private Snapshot(File root, Map<String, ModpackManifest> instances) {
+            Map<String, ModpackManifest> byName = new TreeMap<>();
+            instances.values().forEach(manifest -> byName.put(manifest.getName(), manifest));
+
+            this.root = root;
+            this.byDirectory = Collections.unmodifiableMap(instances);
+            this.byName = Collections.unmodifiableMap(byName);
+            this.list = Collections.unmodifiableList(new ArrayList<>(byName.values()));
+        }
+    }
+
+}
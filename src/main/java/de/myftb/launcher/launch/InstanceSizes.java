@@ -0,0 +1,185 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Speicherbedarf der Instanzverzeichnisse. Jede Datei einer Instanz zu durchlaufen ist für Paketlisten zu teuer, daher wird stets der
+ * zuletzt ermittelte Wert geliefert und nach Installation, Spielende oder bei veraltetem Stand im Hintergrund neu berechnet.
+ * Die Werte werden mit Änderungsdatum des Manifests und Zeitpunkt des letzten Spielens abgelegt und überdauern einen Neustart.
+ */
+public class InstanceSizes {
+    private static final Logger log = LoggerFactory.getLogger(InstanceSizes.class);
+    private static final Gson gson = new Gson();
+    private static final ExecutorService calculationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "InstanceSizes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private static Map<String, Entry> sizes;
+
+    /**
+     * Liefert den zuletzt ermittelten Speicherbedarf, ohne das Verzeichnis zu durchlaufen. Ist dieser veraltet, wird er im Hintergrund
+     * neu berechnet.
+     *
+     * @return Größe in Bytes oder -1, falls noch keine Größe bekannt ist
+     */
+    public static long get(ModpackManifest manifest) {
+        Entry entry;
+        synchronized (InstanceSizes.class) {
+            entry = InstanceSizes.getSizes().get(manifest.getName());
+        }
+
+        if (entry == null || !entry.hasStamp(InstanceSizes.getStamp(manifest.getName()))) {
+            InstanceSizes.update(manifest.getName());
+        }
+        return entry == null ? -1 : entry.size;
+    }
+
+    /**
+     * Berechnet den Speicherbedarf im Hintergrund neu, z.B. nach Installation oder Spielende.
+     */
+    public static void update(String name) {
+        if (!InstanceSizes.pending.add(name)) {
+            return;
+        }
+
+        InstanceSizes.calculationExecutor.execute(() -> {
+            InstanceSizes.pending.remove(name);
+            File instanceDir = new File(Launcher.getInstance().getSaveSubDirectory("instances"), name);
+            Entry entry = InstanceSizes.getStamp(name);
+
+            synchronized (InstanceSizes.class) {
+                if (!instanceDir.isDirectory()) {
+                    if (InstanceSizes.getSizes().remove(name) != null) {
+                        InstanceSizes.save();
+                    }
+                    return;
+                }
+            }
+
+            entry.size = InstanceSizes.calculate(instanceDir);
+            synchronized (InstanceSizes.class) {
+                InstanceSizes.getSizes().put(name, entry);
+                InstanceSizes.save();
+            }
+        });
+    }
+
+    private static Entry getStamp(String name) {
+        File manifestFile = new File(new File(Launcher.getInstance().getSaveSubDirectory("instances"), name), "manifest.json");
+        Entry entry = new Entry();
+        entry.manifestModified = manifestFile.lastModified();
+        entry.lastPlayed = Launcher.getInstance().getConfig().getLastPlayedTime(name);
+        return entry;
+    }
+
+    private static long calculate(File instanceDir) {
+        long[] size = new long[1];
+        try {
+            Files.walkFileTree(instanceDir.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    size[0] += attributes.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            InstanceSizes.log.warn("Fehler beim Ermitteln der Größe von " + instanceDir.getAbsolutePath(), e);
+        }
+        return size[0];
+    }
+
+    private static File getFile() {
+        return new File(Launcher.getInstance().getSaveSubDirectory("instancesizes"), "sizes.json");
+    }
+
+    private static Map<String, Entry> getSizes() {
+        if (InstanceSizes.sizes == null) {
+            InstanceSizes.sizes = new HashMap<>();
+            File file = InstanceSizes.getFile();
+            if (file.isFile()) {
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    Map<String, Entry> stored = InstanceSizes.gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {}.getType());
+                    if (stored != null) {
+                        InstanceSizes.sizes.putAll(stored);
+                    }
+                } catch (IOException | JsonParseException e) {
+                    InstanceSizes.log.warn("Instanzgrößen konnten nicht gelesen werden, sie werden neu ermittelt", e);
+                }
+            }
+        }
+        return InstanceSizes.sizes;
+    }
+
+    private static void save() {
+        try {
+            File file = InstanceSizes.getFile();
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.write(temp.toPath(), InstanceSizes.gson.toJson(InstanceSizes.sizes).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            InstanceSizes.log.warn("Instanzgrößen konnten nicht gespeichert werden", e);
+        }
+    }
+
+    private static class Entry {
+        private long manifestModified;
+        private long lastPlayed;
+        private long size;
+
+        private boolean hasStamp(Entry stamp) {
+            return this.manifestModified == stamp.manifestModified && this.lastPlayed == stamp.lastPlayed;
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.common.base.Joiner;
+import com.mojang.authlib.UserAuthentication;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.LauncherConfig;
+import de.myftb.launcher.models.launcher.Platform;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Vorbereiteter Start eines Modpacks: entpackte Natives, JVM- und Spielargumente mit allen Platzhaltern außer der Anmeldung.
+ */
+public class LaunchContext {
+    private static final Logger log = LoggerFactory.getLogger(LaunchContext.class);
+    private final ModpackManifest modpackManifest;
+    private final File nativesDir;
+    private final List<String> jvmArguments;
+    private final List<String> gameArguments;
+    private final Map<String, String> tokens;
+    private final String settingsKey;
+
+    LaunchContext(ModpackManifest modpackManifest, File nativesDir, List<String> jvmArguments, List<String> gameArguments,
+                  Map<String, String> tokens) {
+        this.modpackManifest = modpackManifest;
+        this.nativesDir = nativesDir;
+        this.jvmArguments = jvmArguments;
+        this.gameArguments = gameArguments;
+        this.tokens = tokens;
+        this.settingsKey = LaunchContext.getSettingsKey(modpackManifest);
+    }
+
+    /**
+     * Bildet einen Schlüssel aus allen Einstellungen, welche die Startargumente eines Modpacks beeinflussen.
+     *
+     * @param modpackManifest Modpack
+     * @return Schlüssel der aktuellen Einstellungen
+     */
+    static String getSettingsKey(ModpackManifest modpackManifest) {
+        LauncherConfig config = Launcher.getInstance().getConfig();
+        return Joiner.on('|').join(modpackManifest.getName(), modpackManifest.getVersion(), config.getJvmArgs(), config.getMinMemory(),
+                config.getMaxMemory(modpackManifest.getName()), config.getJvmProfile(modpackManifest.getName()), config.isGcLogging(),
+                config.getGameWidth(), config.getGameHeight());
+    }
+
+    public ModpackManifest getModpackManifest() {
+        return this.modpackManifest;
+    }
+
+    public String getSettingsKey() {
+        return this.settingsKey;
+    }
+
+    public void setAuthentication(UserAuthentication userAuthentication) {
+        this.tokens.put("auth_player_name", userAuthentication.getSelectedProfile().getName());
+        this.tokens.put("auth_uuid", userAuthentication.getSelectedProfile().getId().toString());
+        this.tokens.put("auth_access_token", userAuthentication.getAuthenticatedToken());
+        this.tokens.put("auth_session", userAuthentication.getAuthenticatedToken());
+        this.tokens.put("user_type", userAuthentication.getUserType().getName());
+        this.tokens.put("user_properties", userAuthentication.getSelectedProfile().getProperties().toString());
+    }
+
+    private static String getJavaExecutable() {
+        File runtimeDir = new File(System.getProperty("java.home"));
+        return new File(runtimeDir, "bin/java" + (Platform.getPlatform() == Platform.WINDOWS ? ".exe" : "")).getAbsolutePath();
+    }
+
+    /**
+     * Gibt die vollständige Kommandozeile zum direkten Start des Spiels zurück.
+     * Die Argumente werden vor dem Ersetzen der Platzhalter geloggt, damit keine Zugangsdaten im Log landen.
+     *
+     * @return Kommandozeile
+     */
+    public List<String> getCommandLine() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(LaunchContext.getJavaExecutable());
+        arguments.addAll(this.jvmArguments);
+        arguments.add(this.modpackManifest.getVersionManifest().getMainClass());
+        arguments.addAll(this.gameArguments);
+
+        LaunchContext.log.info("Startargumente: " + Joiner.on(' ').join(arguments));
+        LaunchHelper.replaceTokens(arguments, this.tokens);
+        return arguments;
+    }
+
+    /**
+     * Gibt die Kommandozeile für eine vorgestartete JVM zurück, welche in {@link WarmBootstrap} auf die Spielargumente wartet.
+     *
+     * @param bootstrapDir Klassenpfadeintrag, welcher {@link WarmBootstrap} enthält
+     * @param port Port, auf welchem der Launcher die Spielargumente bereitstellt
+     * @param secret Geheimnis, mit welchem sich die JVM beim Launcher ausweist
+     * @return Kommandozeile
+     */
+    public List<String> getBootstrapCommandLine(File bootstrapDir, int port, String secret) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(LaunchContext.getJavaExecutable());
+        arguments.addAll(this.jvmArguments);
+        arguments.add(WarmBootstrap.class.getName());
+        arguments.add(String.valueOf(port));
+        arguments.add(secret);
+        arguments.add(this.modpackManifest.getVersionManifest().getMainClass());
+
+        LaunchContext.log.info("Startargumente (vorgestartet): " + Joiner.on(' ').join(arguments));
+        Map<String, String> bootstrapTokens = new HashMap<>(this.tokens);
+        bootstrapTokens.put("classpath", this.tokens.get("classpath") + File.pathSeparator + bootstrapDir.getAbsolutePath());
+        LaunchHelper.replaceTokens(arguments, bootstrapTokens);
+        return arguments;
+    }
+
+    public List<String> getGameArguments() {
+        List<String> arguments = new ArrayList<>(this.gameArguments);
+        LaunchHelper.replaceTokens(arguments, this.tokens);
+        return arguments;
+    }
+
+    /**
+     * Löscht die für diesen Start entpackten Natives.
+     */
+    public void cleanup() {
+        LaunchContext.log.trace("Lösche entpackte Natives");
+        try {
+            Files.walk(this.nativesDir.toPath())
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        } catch (IOException e) {
+            LaunchContext.log.warn("Fehler beim Löschen der Natives", e);
+        }
+    }
+
+}
@@ -18,12 +18,13 @@
 
 package de.myftb.launcher.launch;
 
-import com.google.common.base.Joiner;
+import com.google.gson.JsonObject;
 import com.mojang.authlib.UserAuthentication;
 
 import de.myftb.launcher.Constants;
 import de.myftb.launcher.Launcher;
 import de.myftb.launcher.MavenHelper;
+import de.myftb.launcher.models.launcher.JvmProfile;
 import de.myftb.launcher.models.launcher.Platform;
 import de.myftb.launcher.models.minecraft.Arguments;
 import de.myftb.launcher.models.minecraft.AssetIndex;
@@ -39,22 +40,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -62,12 +63,14 @@ import org.slf4j.LoggerFactory;
 
 public class LaunchMinecraft {
     private static final Logger log = LoggerFactory.getLogger(LaunchMinecraft.class);
+    private static final long logDrainTimeout = TimeUnit.SECONDS.toMillis(5);
     private static ExecutorService downloadThreadPool;
-    public static boolean cancelDownload = false;
 
-    private static final LogCollector logCollector = new LogCollector();
-    private static boolean running = false;
-    private static Process minecraftProcess;
+    private static PrespawnedProcess prespawnedProcess;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LaunchMinecraft::discardPrespawnedProcess, "Prespawn-Shutdown"));
+    }
 
     private static List<Library> getAdditionalLibraries(ModpackManifest modpackManifest, MinecraftVersionManifest minecraftManifest) {
         return Collections.emptyList();
@@ -125,8 +128,12 @@ public class LaunchMinecraft {
         return joinedLibs;
     }
 
-    public static boolean install(ModpackManifest modpackManifest, List<String> selectedFeatures, InstallationStatusListener statusListener)
-            throws IOException {
+    /**
+     * Installiert oder aktualisiert ein Modpack. Mehrere Installationen können gleichzeitig laufen, jede wird über ihr eigenes
+     * {@code canceled} abgebrochen.
+     */
+    public static boolean install(ModpackManifest modpackManifest, List<String> selectedFeatures, InstallationStatusListener statusListener,
+            BooleanSupplier canceled) throws IOException {
         File instanceDir = modpackManifest.getInstanceDir();
         File manifestFile = new File(instanceDir, "manifest.json");
         ModpackManifest oldManifest = null;
@@ -202,15 +209,15 @@ public class LaunchMinecraft {
         if (LaunchMinecraft.downloadThreadPool == null || LaunchMinecraft.downloadThreadPool.isShutdown()) {
             LaunchMinecraft.downloadThreadPool = LaunchHelper.getNewDaemonThreadPool();
         }
-        LaunchMinecraft.cancelDownload = false;
 
         ExecutorCompletionService<File> completionService = new ExecutorCompletionService<>(LaunchMinecraft.downloadThreadPool);
-        tasks.forEach(completionService::submit);
+        List<Future<File>> futures = tasks.stream().map(completionService::submit).collect(Collectors.toList());
 
         int failed = 0;
         for (int i = 0; i < tasks.size(); i++) {
-            if (LaunchMinecraft.cancelDownload) {
-                LaunchMinecraft.downloadThreadPool.shutdownNow();
+            if (canceled.getAsBoolean()) {
+                // Nur die eigenen Downloads abbrechen, der Pool wird von parallelen Installationen mitgenutzt
+                futures.forEach(future -> future.cancel(true));
                 failed = tasks.size() - i;
                 break;
             } else {
@@ -227,24 +234,24 @@ public class LaunchMinecraft {
         LaunchMinecraft.log.info("Modpack {} installiert", modpackManifest.getTitle());
         boolean success = failed == 0;
         Files.write(new File(instanceDir, ".success").toPath(), new byte[]{(byte) (success ? 1 : 0)});
+        InstanceRegistry.refresh(modpackManifest.getName());
+        InstanceSizes.update(modpackManifest.getName());
 
         return success;
     }
 
-    public static void launch(ModpackManifest modpackManifest, UserAuthentication userAuthentication) throws IOException, InterruptedException {
-        if (LaunchMinecraft.running) {
-            throw new IllegalStateException("Es läuft bereits ein Modpack");
-        }
-
-        MinecraftVersionManifest minecraftManifest = ManifestHelper.getManifest(modpackManifest.getGameVersion());
-        File instanceDir = modpackManifest.getInstanceDir();
-
+    private static void checkUpToDate(ModpackManifest modpackManifest) throws IOException {
         Optional<ModpackManifestList.ModpackManifestReference> remoteReference = Launcher.getInstance().getRemotePacks()
                 .getPackByName(modpackManifest.getName());
         if (!remoteReference.map(ModpackManifestList.ModpackManifestReference::getVersion).orElse(modpackManifest.getVersion())
                 .equals(modpackManifest.getVersion())) {
             throw new ModpackOutdatedException(remoteReference.get());
         }
+    }
+
+    private static LaunchContext prepare(ModpackManifest modpackManifest) throws IOException {
+        MinecraftVersionManifest minecraftManifest = ManifestHelper.getManifest(modpackManifest.getGameVersion());
+        File instanceDir = modpackManifest.getInstanceDir();
 
         AssetIndex assetIndex = LaunchHelper.mapper.readValue(new File(Launcher.getInstance().getSaveSubDirectory("assets/indexes"),
                 minecraftManifest.getAssetIndex().getId() + ".json"), AssetIndex.class);
@@ -309,17 +316,25 @@ public class LaunchMinecraft {
                 "-XX:HeapDumpPath=MojangTricksIntelDriversForPerformance_javaw.exe_minecraft.exe.heapdump",
                 "-cp", "${classpath}"));
 
-        jvmArguments.add("-Xms${min_memory}M");
-        jvmArguments.add("-Xmx${max_memory}M");
-
-        if (modpackManifest.getLaunch().containsKey("flags")) {
-            jvmArguments.addAll(modpackManifest.getLaunch().get("flags"));
+        List<String> packFlags = modpackManifest.getLaunch().getOrDefault("flags", Collections.emptyList());
+        List<String> customArgs = Launcher.getInstance().getConfig().getJvmArgs().isEmpty()
+                ? Collections.emptyList()
+                : Arrays.asList(Launcher.getInstance().getConfig().getJvmArgs().split(" "));
+        List<String> additionalFlags = new ArrayList<>(packFlags);
+        additionalFlags.addAll(customArgs);
+
+        JvmProfile jvmProfile = Launcher.getInstance().getConfig().getJvmProfile(modpackManifest.getName());
+        jvmArguments.addAll(jvmProfile.getArguments(Launcher.getInstance().getConfig().getMinMemory(),
+                Launcher.getInstance().getConfig().getMaxMemory(modpackManifest.getName()), modpackManifest.getRequiredMemory(), additionalFlags));
+
+        if (Launcher.getInstance().getConfig().isGcLogging()) {
+            File gcLogFile = GcAdvisor.getLogFile(modpackManifest);
+            gcLogFile.getParentFile().mkdirs();
+            gcLogFile.delete();
+            jvmArguments.addAll(GcAdvisor.getLoggingArguments(gcLogFile));
         }
 
-        if (!Launcher.getInstance().getConfig().getJvmArgs().isEmpty()) {
-            String[] customArgs = Launcher.getInstance().getConfig().getJvmArgs().split(" ");
-            jvmArguments.addAll(Arrays.asList(customArgs));
-        }
+        jvmArguments.addAll(additionalFlags);
 
         File librariesDir = Launcher.getInstance().getSaveSubDirectory("libraries");
         List<String> classpath = libraries.stream()
@@ -330,13 +345,6 @@ public class LaunchMinecraft {
                 minecraftManifest.getId() + ".jar").getAbsolutePath());
 
         Map<String, String> tokens = new HashMap<>();
-        tokens.put("auth_player_name", userAuthentication.getSelectedProfile().getName());
-        tokens.put("auth_uuid", userAuthentication.getSelectedProfile().getId().toString());
-        tokens.put("auth_access_token", userAuthentication.getAuthenticatedToken());
-        tokens.put("auth_session", userAuthentication.getAuthenticatedToken());
-        tokens.put("user_type", userAuthentication.getUserType().getName());
-        tokens.put("user_properties", userAuthentication.getSelectedProfile().getProperties().toString());
-
         tokens.put("version_name", minecraftManifest.getId());
         tokens.put("game_directory", instanceDir.getAbsolutePath());
         tokens.put("assets_root", (assetIndex.isVirtual()
@@ -352,51 +360,123 @@ public class LaunchMinecraft {
         tokens.put("classpath", String.join(File.pathSeparator, classpath));
 
         tokens.put("min_memory", String.valueOf(Launcher.getInstance().getConfig().getMinMemory()));
-        tokens.put("max_memory", String.valueOf(Launcher.getInstance().getConfig().getMaxMemory()));
+        tokens.put("max_memory", String.valueOf(Launcher.getInstance().getConfig().getMaxMemory(modpackManifest.getName())));
 
-        List<String> arguments = new LinkedList<>();
-        File runtimeDir = new File(System.getProperty("java.home"));
-        arguments.add(new File(runtimeDir, "bin/java" + (Platform.getPlatform() == Platform.WINDOWS ? ".exe" : "")).getAbsolutePath());
-        arguments.addAll(jvmArguments);
-        arguments.add(modpackManifest.getVersionManifest().getMainClass());
-        arguments.addAll(gameArguments);
+        return new LaunchContext(modpackManifest, nativesDir, jvmArguments, gameArguments, tokens);
+    }
 
-        LaunchMinecraft.log.info("Startargumente: " + Joiner.on(' ').join(arguments));
-        LaunchHelper.replaceTokens(arguments, tokens);
+    /**
+     * Startet eine JVM mit den Argumenten des Modpacks vor, welche beim anschließenden Start nur noch die Spielargumente erhält.
+     * Ein bereits vorgestarteter Prozess mit abweichenden Einstellungen wird dabei beendet.
+     *
+     * @param modpackManifest Modpack, welches vermutlich als nächstes gestartet wird
+     * @return true, wenn für das Modpack anschließend eine JVM bereitsteht
+     * @throws IOException Fehler beim Starten der JVM
+     */
+    public static synchronized boolean prespawn(ModpackManifest modpackManifest) throws IOException {
+        if (!Launcher.getInstance().getConfig().isPreSpawn()
+                || Launcher.getInstance().getProcessSupervisor().isRunning(modpackManifest.getName())) {
+            return false;
+        }
 
-        ProcessBuilder builder = new ProcessBuilder(arguments);
-        builder.directory(instanceDir);
+        if (LaunchMinecraft.prespawnedProcess != null) {
+            if (LaunchMinecraft.prespawnedProcess.matches(LaunchContext.getSettingsKey(modpackManifest))) {
+                return true;
+            }
+            LaunchMinecraft.discardPrespawnedProcess();
+        }
 
+        LaunchMinecraft.checkUpToDate(modpackManifest);
+        LaunchContext context = LaunchMinecraft.prepare(modpackManifest);
         try {
-            LaunchMinecraft.log.info("Alle Dateien aktuell, starte Minecraft");
-            Launcher.getInstance().getDiscordIntegration().setRunningModpack(modpackManifest);
-            LaunchMinecraft.running = true;
-            LaunchMinecraft.minecraftProcess = builder.start();
-            LaunchMinecraft.logCollector.clear();
-            ProcessLogConsumer.attach(LaunchMinecraft.minecraftProcess, LaunchMinecraft.logCollector::log);
-            int code = LaunchMinecraft.minecraftProcess.waitFor();
-            LaunchMinecraft.logCollector.log("\nProzess mit Code " + code + " beendet\n");
-        } finally {
-            LaunchMinecraft.log.info("Minecraft Prozess beendet");
-
-            Launcher.getInstance().getDiscordIntegration().setRunningModpack(null);
-            LaunchMinecraft.running = false;
+            LaunchMinecraft.prespawnedProcess = PrespawnedProcess.spawn(context);
+            LaunchMinecraft.log.info("JVM für Modpack {} vorgestartet", modpackManifest.getTitle());
+            return true;
+        } catch (IOException e) {
+            context.cleanup();
+            throw e;
+        }
+    }
 
-            LaunchMinecraft.log.trace("Lösche entpackte Natives");
-            Files.walk(nativesDir.toPath())
-                    .sorted(Comparator.reverseOrder())
-                    .map(Path::toFile)
-                    .forEach(File::delete);
+    private static synchronized PrespawnedProcess takePrespawnedProcess(String settingsKey) {
+        PrespawnedProcess process = LaunchMinecraft.prespawnedProcess;
+        LaunchMinecraft.prespawnedProcess = null;
+        if (process != null && (!Launcher.getInstance().getConfig().isPreSpawn() || !process.matches(settingsKey))) {
+            process.discard();
+            return null;
         }
+        return process;
     }
 
-    public static String getLog() {
-        return LaunchMinecraft.logCollector.getLog();
+    public static synchronized void discardPrespawnedProcess() {
+        if (LaunchMinecraft.prespawnedProcess != null) {
+            String modpack = LaunchMinecraft.prespawnedProcess.getContext().getModpackManifest().getName();
+            LaunchMinecraft.prespawnedProcess.discard();
+            LaunchMinecraft.prespawnedProcess = null;
+
+            JsonObject message = new JsonObject();
+            message.addProperty("modpack", modpack);
+            Launcher.getInstance().getIpcHandler().send("prespawn_discarded", message);
+        }
     }
 
-    public static void killMinecraft() {
-        if (LaunchMinecraft.minecraftProcess != null && LaunchMinecraft.running) {
-            LaunchMinecraft.minecraftProcess.destroy();
+    public static void launch(ModpackManifest modpackManifest, UserAuthentication userAuthentication) throws IOException, InterruptedException {
+        LaunchMinecraft.checkUpToDate(modpackManifest);
+
+        ProcessSupervisor supervisor = Launcher.getInstance().getProcessSupervisor();
+        GameInstance instance = supervisor.create(modpackManifest);
+
+        LaunchContext context = null;
+        GcLogAnalyzer gcLogAnalyzer = null;
+        long startTime = System.currentTimeMillis();
+        int code = -1;
+        try {
+            Process process = null;
+            PrespawnedProcess prespawned = LaunchMinecraft.takePrespawnedProcess(LaunchContext.getSettingsKey(modpackManifest));
+            if (prespawned != null) {
+                context = prespawned.getContext();
+                context.setAuthentication(userAuthentication);
+                try {
+                    prespawned.start(context.getGameArguments());
+                    process = prespawned.getProcess();
+                    LaunchMinecraft.log.info("Verwende vorgestarteten Minecraft Prozess");
+                } catch (IOException e) {
+                    LaunchMinecraft.log.warn("Vorgestarteter Prozess konnte nicht verwendet werden", e);
+                    prespawned.discard();
+                    context = null;
+                }
+            }
+
+            if (process == null) {
+                context = LaunchMinecraft.prepare(modpackManifest);
+                context.setAuthentication(userAuthentication);
+
+                LaunchMinecraft.log.info("Alle Dateien aktuell, starte Minecraft");
+                ProcessBuilder builder = new ProcessBuilder(context.getCommandLine());
+                builder.directory(modpackManifest.getInstanceDir());
+                process = builder.start();
+            }
+
+            supervisor.onStarted(instance, process);
+            if (Launcher.getInstance().getConfig().isGcLogging()) {
+                gcLogAnalyzer = GcAdvisor.startTracking(GcAdvisor.getLogFile(modpackManifest));
+            }
+            List<ProcessLogConsumer> logConsumers = ProcessLogConsumer.attach(process, instance::onLogLine);
+            code = process.waitFor();
+            ProcessLogConsumer.await(logConsumers, LaunchMinecraft.logDrainTimeout);
+            instance.flushLog();
+            instance.getLogCollector().log("\nProzess mit Code " + code + " beendet\n");
+        } finally {
+            supervisor.onExited(instance, code);
+            InstanceSizes.update(modpackManifest.getName());
+
+            if (gcLogAnalyzer != null) {
+                GcAdvisor.finishTracking(modpackManifest, gcLogAnalyzer, (System.currentTimeMillis() - startTime) / 1000);
+            }
+
+            if (context != null) {
+                context.cleanup();
+            }
         }
     }
 
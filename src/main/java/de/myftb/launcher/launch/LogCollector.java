@@ -21,34 +21,153 @@ package de.myftb.launcher.launch;
 import de.myftb.launcher.Launcher;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Timer;
+import java.util.TimerTask;
 
+/**
+ * Hält die letzten {@value #maxSize} Bytes der Ausgabe eines Spiels in einem Ringpuffer und sendet neue Ausgaben gebündelt an die Konsole.
+ */
 public class LogCollector {
     private static final int maxSize = 2000000;
+    private static final int batchSize = 32768;
+    private static final int replayChunkSize = 65536;
+    private static final long batchDelay = 100;
+    private static final Timer flushTimer = new Timer("LogCollector", true);
 
-    private final byte[] log = new byte[LogCollector.maxSize];
-    private final byte[] logBuffer = new byte[LogCollector.maxSize];
+    private byte[] log;
+    private int start = 0;
     private int length = 0;
+    private long totalBytes = 0;
+    private volatile boolean streaming = false;
+    private final StringBuilder pending = new StringBuilder();
+    private boolean flushScheduled = false;
 
-    public void log(String str) {
+    public synchronized void log(String str) {
         byte[] logBytes = str.getBytes(StandardCharsets.UTF_8);
-        if ((this.length + logBytes.length) >= LogCollector.maxSize) {
-            System.arraycopy(this.log, logBytes.length, this.logBuffer, 0, LogCollector.maxSize - logBytes.length);
-            System.arraycopy(this.logBuffer, 0, this.log, 0, LogCollector.maxSize - logBytes.length);
-            System.arraycopy(logBytes, 0, this.log, LogCollector.maxSize - logBytes.length, logBytes.length);
+        this.append(logBytes);
+        this.totalBytes += logBytes.length;
+
+        if (this.streaming) {
+            this.pending.append(str);
+            if (this.pending.length() >= LogCollector.batchSize) {
+                this.flush();
+            } else if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                LogCollector.flushTimer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        synchronized (LogCollector.this) {
+                            LogCollector.this.flushScheduled = false;
+                            LogCollector.this.flush();
+                        }
+                    }
+                }, LogCollector.batchDelay);
+            }
+        }
+    }
+
+    public void log(LogLine line) {
+        this.log(line.getText() + "\n");
+    }
+
+    private void append(byte[] logBytes) {
+        if (this.log == null) {
+            this.log = new byte[LogCollector.maxSize];
+        }
+
+        int offset = Math.max(0, logBytes.length - LogCollector.maxSize);
+        int count = logBytes.length - offset;
+        int end = (this.start + this.length) % LogCollector.maxSize;
+        int firstPart = Math.min(count, LogCollector.maxSize - end);
+        System.arraycopy(logBytes, offset, this.log, end, firstPart);
+        System.arraycopy(logBytes, offset + firstPart, this.log, 0, count - firstPart);
+
+        int overflow = this.length + count - LogCollector.maxSize;
+        if (overflow > 0) {
+            this.start = (this.start + overflow) % LogCollector.maxSize;
+            this.length = LogCollector.maxSize;
         } else {
-            System.arraycopy(logBytes, 0, this.log, this.length, logBytes.length);
+            this.length += count;
         }
+    }
 
-        this.length = Math.min(LogCollector.maxSize, this.length + logBytes.length);
-        Launcher.getInstance().getIpcHandler().sendString("console_data", str);
+    private void flush() {
+        if (this.pending.length() == 0) {
+            return;
+        }
+
+        Launcher.getInstance().getIpcHandler().sendString("console_data", this.pending.toString());
+        this.pending.setLength(0);
     }
 
-    public String getLog() {
-        return new String(this.log, 0, this.length, StandardCharsets.UTF_8);
+    /**
+     * Legt fest, ob neue Ausgaben an die Konsole der UI gesendet werden.
+     *
+     * @param streaming {@code true}, wenn dieses Log in der Konsole angezeigt wird
+     */
+    public synchronized void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+        if (!streaming) {
+            this.pending.setLength(0);
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    /**
+     * Kopiert den Inhalt des Ringpuffers zusammenhängend und ohne ein am Anfang abgeschnittenes UTF-8-Zeichen.
+     */
+    private byte[] snapshot() {
+        int skip = 0;
+        while (skip < this.length && (this.log[(this.start + skip) % LogCollector.maxSize] & 0xC0) == 0x80) {
+            skip++;
+        }
+
+        byte[] snapshot = new byte[this.length - skip];
+        int from = (this.start + skip) % LogCollector.maxSize;
+        int firstPart = Math.min(snapshot.length, LogCollector.maxSize - from);
+        System.arraycopy(this.log, from, snapshot, 0, firstPart);
+        System.arraycopy(this.log, 0, snapshot, firstPart, snapshot.length - firstPart);
+        return snapshot;
+    }
+
+    public synchronized String getLog() {
+        if (this.log == null) {
+            return "";
+        }
+        return new String(this.snapshot(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sendet das gesamte Log in Teilen an die Konsole der UI, damit der EDT nicht mit einer einzelnen großen Nachricht blockiert wird.
+     * Noch nicht gesendete Ausgaben sind darin enthalten und werden verworfen.
+     */
+    public synchronized void replay() {
+        this.pending.setLength(0);
+        if (this.log == null) {
+            return;
+        }
+
+        byte[] snapshot = this.snapshot();
+        int offset = 0;
+        while (offset < snapshot.length) {
+            int end = Math.min(snapshot.length, offset + LogCollector.replayChunkSize);
+            while (end < snapshot.length && end > offset + 1 && (snapshot[end] & 0xC0) == 0x80) {
+                end--; // Kein UTF-8-Zeichen auf zwei Nachrichten aufteilen
+            }
+
+            Launcher.getInstance().getIpcHandler().sendString("console_data", new String(snapshot, offset, end - offset, StandardCharsets.UTF_8));
+            offset = end;
+        }
     }
 
-    public void clear() {
+    public synchronized void clear() {
+        this.start = 0;
         this.length = 0;
+        this.totalBytes = 0;
+        this.pending.setLength(0);
     }
 
 }
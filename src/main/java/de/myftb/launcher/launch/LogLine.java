@@ -0,0 +1,112 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+/**
+ * Eine vollständige Ausgabezeile eines Spiels.
+ * Zeilen im Log4j-Format von Minecraft ({@code [12:34:56] [Server thread/INFO] [minecraft/DedicatedServer]: Nachricht})
+ * werden in Zeitstempel, Thread, Level, Logger und Nachricht zerlegt, bei anderen Zeilen sind diese Felder {@code null}.
+ */
+public class LogLine {
+    private final String text;
+    private final boolean errorStream;
+    private final String time;
+    private final String thread;
+    private final String level;
+    private final String logger;
+    private final int messageStart;
+
+    private LogLine(String text, boolean errorStream, String time, String thread, String level, String logger, int messageStart) {
+        this.text = text;
+        this.errorStream = errorStream;
+        this.time = time;
+        this.thread = thread;
+        this.level = level;
+        this.logger = logger;
+        this.messageStart = messageStart;
+    }
+
+    /**
+     * Zerlegt eine Zeile ohne reguläre Ausdrücke, da jede Ausgabezeile des Spiels hier durchläuft.
+     *
+     * @param text Zeile ohne Zeilenumbruch
+     * @param errorStream {@code true}, wenn die Zeile aus stderr stammt
+     * @return Zeile
+     */
+    public static LogLine parse(String text, boolean errorStream) {
+        if (text.length() < 12 || text.charAt(0) != '[' || text.charAt(9) != ']' || text.charAt(10) != ' ' || text.charAt(11) != '[') {
+            return new LogLine(text, errorStream, null, null, null, null, 0);
+        }
+
+        int threadEnd = text.indexOf("]", 12);
+        int levelStart = threadEnd == -1 ? -1 : text.lastIndexOf('/', threadEnd);
+        if (levelStart < 12) {
+            return new LogLine(text, errorStream, null, null, null, null, 0);
+        }
+
+        String logger = null;
+        int messageStart = threadEnd + 1;
+        if (text.startsWith(" [", messageStart)) {
+            int loggerEnd = text.indexOf("]:", messageStart);
+            if (loggerEnd != -1) {
+                logger = text.substring(messageStart + 2, loggerEnd);
+                messageStart = loggerEnd + 1;
+            }
+        }
+        if (text.startsWith(": ", messageStart)) {
+            messageStart += 2;
+        }
+
+        return new LogLine(text, errorStream, text.substring(1, 9), text.substring(12, levelStart), text.substring(levelStart + 1, threadEnd),
+                logger, messageStart);
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public boolean isErrorStream() {
+        return this.errorStream;
+    }
+
+    public String getTime() {
+        return this.time;
+    }
+
+    public String getThread() {
+        return this.thread;
+    }
+
+    public String getLevel() {
+        return this.level;
+    }
+
+    public String getLogger() {
+        return this.logger;
+    }
+
+    public String getMessage() {
+        return this.messageStart == 0 ? this.text : this.text.substring(this.messageStart);
+    }
+
+    public boolean isStructured() {
+        return this.time != null;
+    }
+
+}
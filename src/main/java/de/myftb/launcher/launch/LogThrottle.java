@@ -0,0 +1,189 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.common.base.Splitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Begrenzt die an die Konsole der UI weitergegebene Ausgabe eines Spiels, Sitzungslog und Fehlererkennung sind davon nicht betroffen.
+ * Aufeinanderfolgende gleiche Zeilen werden zu einer Zusammenfassung zusammengefasst und jeder Logger erhält einen Token-Bucket,
+ * dessen Rate in Zeilen pro Sekunde über {@code logger=rate}-Paare konfiguriert wird ({@code *} gilt für alle übrigen Logger).
+ * Zeilen mit Level ERROR oder FATAL werden nie verworfen.
+ */
+class LogThrottle {
+    private static final Logger log = LoggerFactory.getLogger(LogThrottle.class);
+    private static final long repeatSummaryInterval = TimeUnit.SECONDS.toNanos(5);
+    private static final String defaultKey = "*";
+
+    private final Map<String, Integer> rates = new HashMap<>();
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private LogLine lastLine;
+    private int repeats = 0;
+    private long repeatStart;
+    private long droppedBytes = 0;
+    private long droppedLines = 0;
+
+    LogThrottle(String rateLimits) {
+        try {
+            Splitter.on(',').omitEmptyStrings().trimResults().withKeyValueSeparator(Splitter.on('=').trimResults())
+                    .split(rateLimits)
+                    .forEach((key, rate) -> this.rates.put(key, Integer.parseInt(rate)));
+        } catch (IllegalArgumentException e) {
+            LogThrottle.log.warn("Ungültige Log-Ratenbegrenzung: {}", rateLimits);
+        }
+    }
+
+    /**
+     * Gibt eine Zeile weiter, sofern sie weder eine Wiederholung der vorherigen ist noch das Limit ihres Loggers überschreitet.
+     *
+     * @param line Ausgabezeile
+     * @param downstream Weitere Verarbeitung
+     */
+    synchronized void accept(LogLine line, Consumer<LogLine> downstream) {
+        long now = System.nanoTime();
+        if (this.lastLine != null && LogThrottle.isRepeat(this.lastLine, line)) {
+            this.repeats++;
+            this.drop(line);
+            if (now - this.repeatStart >= LogThrottle.repeatSummaryInterval) {
+                this.flushRepeats(downstream, now);
+            }
+            return;
+        }
+
+        this.flushRepeats(downstream, now);
+        this.lastLine = line;
+
+        if (!"ERROR".equals(line.getLevel()) && !"FATAL".equals(line.getLevel())) {
+            String key = LogThrottle.getKey(line);
+            Bucket bucket = this.buckets.get(key);
+            if (bucket == null) {
+                int rate = this.rates.getOrDefault(key, this.rates.getOrDefault(LogThrottle.defaultKey, 0));
+                bucket = new Bucket(rate, now);
+                this.buckets.put(key, bucket);
+            }
+
+            if (!bucket.tryAcquire(now)) {
+                bucket.dropped++;
+                this.drop(line);
+                return;
+            }
+
+            if (bucket.dropped > 0) {
+                downstream.accept(LogLine.parse("… " + bucket.dropped + " Zeilen von " + key + " verworfen (Limit "
+                        + bucket.rate + "/s)", line.isErrorStream()));
+                bucket.dropped = 0;
+            }
+        }
+
+        downstream.accept(line);
+    }
+
+    /**
+     * Gibt eine Zusammenfassung ausstehender Wiederholungen aus, z.B. beim Beenden des Prozesses.
+     *
+     * @param downstream Weitere Verarbeitung
+     */
+    synchronized void flush(Consumer<LogLine> downstream) {
+        this.flushRepeats(downstream, System.nanoTime());
+    }
+
+    private void flushRepeats(Consumer<LogLine> downstream, long now) {
+        if (this.repeats > 0) {
+            downstream.accept(LogLine.parse(String.format("… vorherige Zeile %,d mal wiederholt", this.repeats),
+                    this.lastLine.isErrorStream()));
+            this.repeats = 0;
+        }
+        this.repeatStart = now;
+    }
+
+    private void drop(LogLine line) {
+        this.droppedLines++;
+        this.droppedBytes += line.getText().length() + 1;
+    }
+
+    /**
+     * Vergleicht zwei Zeilen ohne den Zeitstempel, da sich dieser bei sich wiederholenden Meldungen jede Sekunde ändert.
+     */
+    private static boolean isRepeat(LogLine previous, LogLine line) {
+        int offset = previous.isStructured() && line.isStructured() ? 10 : 0;
+        String previousText = previous.getText();
+        String text = line.getText();
+        return previousText.length() == text.length() && previous.isErrorStream() == line.isErrorStream()
+                && previousText.regionMatches(offset, text, offset, text.length() - offset);
+    }
+
+    private static String getKey(LogLine line) {
+        if (line.getLogger() != null) {
+            return line.getLogger();
+        }
+        if (line.getThread() != null) {
+            return line.getThread();
+        }
+        return line.isErrorStream() ? "stderr" : "stdout";
+    }
+
+    /**
+     * Anzahl verworfener Bytes (UTF-16-Zeichen inklusive Zeilenumbruch, bei ASCII-Ausgaben identisch).
+     *
+     * @return Verworfene Bytes seit dem Start
+     */
+    synchronized long getDroppedBytes() {
+        return this.droppedBytes;
+    }
+
+    synchronized long getDroppedLines() {
+        return this.droppedLines;
+    }
+
+    private static class Bucket {
+        private final int rate;
+        private double tokens;
+        private long lastRefill;
+        private int dropped = 0;
+
+        private Bucket(int rate, long now) {
+            this.rate = rate;
+            this.tokens = rate * 2; // Kurze Spitzen bis zur doppelten Rate zulassen
+            this.lastRefill = now;
+        }
+
+        private boolean tryAcquire(long now) {
+            if (this.rate <= 0) {
+                return true;
+            }
+
+            this.tokens = Math.min(this.rate * 2, this.tokens + (now - this.lastRefill) * this.rate / 1e9);
+            this.lastRefill = now;
+            if (this.tokens < 1) {
+                return false;
+            }
+            this.tokens--;
+            return true;
+        }
+    }
+
+}
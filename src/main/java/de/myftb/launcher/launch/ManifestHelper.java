@@ -18,33 +18,95 @@
 
 package de.myftb.launcher.launch;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.JsonObject;
+
 import de.myftb.launcher.Constants;
 import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.PackSummary;
 import de.myftb.launcher.models.minecraft.MinecraftVersionList;
 import de.myftb.launcher.models.minecraft.MinecraftVersionManifest;
 import de.myftb.launcher.models.modpacks.ModpackManifest;
 import de.myftb.launcher.models.modpacks.ModpackManifestList;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ManifestHelper {
     private static final Logger log = LoggerFactory.getLogger(ManifestHelper.class);
-    private static final Map<String, MinecraftVersionManifest> versionManifestCache = new HashMap<>();
-    private static final Map<String, ModpackManifest> modpackManifestCache = new HashMap<>();
+    /**
+     * Versionsmanifeste ändern sich nicht, Modpackmanifeste werden nach zehn Minuten neu geladen. Gleichzeitige Anfragen nach demselben
+     * Schlüssel lösen jeweils nur einen Download aus.
+     */
+    private static final LoadingCache<String, MinecraftVersionManifest> versionManifestCache = CacheBuilder.newBuilder()
+            .recordStats()
+            .build(new CacheLoader<String, MinecraftVersionManifest>() {
+                @Override
+                public MinecraftVersionManifest load(String version) throws IOException {
+                    return ManifestHelper.downloadManifest(version);
+                }
+            });
+    private static final LoadingCache<String, ModpackManifest> modpackManifestCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .recordStats()
+            .build(new CacheLoader<String, ModpackManifest>() {
+                @Override
+                public ModpackManifest load(String location) throws IOException {
+                    return LaunchHelper.mapper.readValue(LaunchHelper.download(String.format(Constants.packManifest, location), null),
+                            ModpackManifest.class);
+                }
+            });
 
     public static void clearModpackCache() {
-        ManifestHelper.modpackManifestCache.clear();
+        ManifestHelper.modpackManifestCache.invalidateAll();
+    }
+
+    public static JsonObject getCacheStats() {
+        JsonObject stats = new JsonObject();
+        stats.add("version_manifests", ManifestHelper.toJson(ManifestHelper.versionManifestCache));
+        stats.add("modpack_manifests", ManifestHelper.toJson(ManifestHelper.modpackManifestCache));
+        return stats;
+    }
+
+    private static JsonObject toJson(LoadingCache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("entries", cache.size());
+        jsonObject.addProperty("hits", stats.hitCount());
+        jsonObject.addProperty("misses", stats.missCount());
+        jsonObject.addProperty("hit_rate", stats.hitRate());
+        jsonObject.addProperty("load_failures", stats.loadExceptionCount());
+        jsonObject.addProperty("average_load_millis", stats.averageLoadPenalty() / 1e6);
+        return jsonObject;
+    }
+
+    /**
+     * Entpackt Fehler beim Laden eines Cacheeintrags, damit Aufrufer wie bisher {@link IOException} bzw. die ursprüngliche
+     * {@link RuntimeException} erhalten.
+     */
+    private static <K, V> V getCached(LoadingCache<K, V> cache, K key) throws IOException {
+        try {
+            return cache.get(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw e;
+        }
     }
 
     public static ModpackManifestList getManifests() throws IOException {
@@ -53,34 +115,21 @@ public class ManifestHelper {
     }
 
     public static MinecraftVersionManifest getManifest(String version) throws IOException {
-        if (ManifestHelper.versionManifestCache.containsKey(version)) {
-            return ManifestHelper.versionManifestCache.get(version);
-        }
+        return ManifestHelper.getCached(ManifestHelper.versionManifestCache, version);
+    }
 
+    private static MinecraftVersionManifest downloadManifest(String version) throws IOException {
         String versionManifestString = LaunchHelper.download(Constants.versionManifestListUrl, null);
         MinecraftVersionList versionList = LaunchHelper.mapper.readValue(versionManifestString, MinecraftVersionList.class);
 
         MinecraftVersionList.MinecraftVersion mcVersion = versionList.getVersion(version)
                 .orElseThrow(() -> new IllegalStateException("Ungültige Spielversion: " + version));
 
-        MinecraftVersionManifest manifest = LaunchHelper.mapper.readValue(LaunchHelper.download(mcVersion.getUrl(), null),
-                MinecraftVersionManifest.class);
-        ManifestHelper.versionManifestCache.put(version, manifest);
-        return manifest;
+        return LaunchHelper.mapper.readValue(LaunchHelper.download(mcVersion.getUrl(), null), MinecraftVersionManifest.class);
     }
 
     public static ModpackManifest getManifestByReference(ModpackManifestList.ModpackManifestReference reference) throws IOException {
-        if (ManifestHelper.modpackManifestCache.containsKey(reference.getLocation())) {
-            return ManifestHelper.modpackManifestCache.get(reference.getLocation());
-        }
-
-        ModpackManifest manifest = LaunchHelper.mapper.readValue(
-                LaunchHelper.download(String.format(Constants.packManifest, reference.getLocation()), null),
-                ModpackManifest.class
-        );
-
-        ManifestHelper.modpackManifestCache.put(reference.getLocation(), manifest);
-        return manifest;
+        return ManifestHelper.getCached(ManifestHelper.modpackManifestCache, reference.getLocation());
     }
 
     public static ModpackManifest getManifestByName(String name) throws IOException {
@@ -92,41 +141,20 @@ public class ManifestHelper {
         return null;
     }
 
+    /**
+     * Gibt die installierten Modpacks zurück, siehe {@link InstanceRegistry}. Die Liste ist nicht veränderbar.
+     */
     public static List<ModpackManifest> getInstalledModpacks() {
-        File instancesDir = Launcher.getInstance().getSaveSubDirectory("instances");
-        File[] instanceDirs = instancesDir.listFiles(File::isDirectory);
-        if (instanceDirs == null) {
-            return Collections.emptyList();
-        }
-
-        List<ModpackManifest> instances = new ArrayList<>();
-        for (File instanceDir : instanceDirs) {
-            File manifestFile = new File(instanceDir, "manifest.json");
-            File successFile = new File(instanceDir, ".success");
-            if (!successFile.isFile()) {
-                continue;
-            }
-
-            try {
-                byte[] successBytes = Files.readAllBytes(successFile.toPath());
-                if (successBytes.length == 0 || successBytes[0] == 0) {
-                    continue;
-                }
-            } catch (IOException e) {
-                ManifestHelper.log.warn("Fehler beim Lesen von Modpack-Installationsstatus " + successFile.getAbsolutePath(), e);
-                continue;
-            }
+        return InstanceRegistry.getInstances();
+    }
 
-            if (manifestFile.isFile()) {
-                try {
-                    instances.add(LaunchHelper.mapper.readValue(manifestFile, ModpackManifest.class));
-                } catch (IOException e) {
-                    ManifestHelper.log.warn("Fehler beim Lesen von Modpack-Manifest " + manifestFile.getAbsolutePath(), e);
-                }
-            }
-        }
+    public static Optional<ModpackManifest> getInstalledModpack(String name) {
+        return InstanceRegistry.get(name);
+    }
 
-        return instances;
+    public static PackSummary getSummary(ModpackManifest manifest) {
+        long lastPlayed = Launcher.getInstance().getConfig().getLastPlayedTime(manifest.getName());
+        return new PackSummary(manifest, InstanceSizes.get(manifest), lastPlayed);
     }
 
 }
@@ -0,0 +1,406 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.ModInfo;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index der installierten Mods aller Instanzen. Die Metadaten werden je Jar anhand des SHA-1 Hashs dauerhaft gespeichert, Pfad,
+ * Größe und Änderungsdatum dienen als Schlüssel für den Hash. Ändert sich das {@code mods} Verzeichnis einer Instanz, werden nur
+ * neue oder geänderte Jars parallel eingelesen.
+ */
+public class ModIndex {
+    private static final Logger log = LoggerFactory.getLogger(ModIndex.class);
+    private static final Gson gson = new Gson();
+    private static final int version = 1;
+    private static final ExecutorService ioPool = LaunchHelper.getNewDaemonThreadPool();
+
+    private static final Map<String, InstanceMods> instanceCache = new ConcurrentHashMap<>();
+    private static IndexData data;
+
+    /**
+     * Liefert die Mods einer Instanz, sortiert nach Name. Solange sich das {@code mods} Verzeichnis nicht geändert hat, wird das
+     * vorherige Ergebnis ohne Zugriff auf die Jars zurückgegeben.
+     */
+    public static List<ModInfo> getMods(ModpackManifest manifest) throws InterruptedException, ExecutionException {
+        File modsDir = new File(manifest.getInstanceDir(), "mods");
+        if (!modsDir.isDirectory()) {
+            return Collections.emptyList();
+        }
+
+        InstanceMods cached = ModIndex.instanceCache.get(manifest.getName());
+        if (cached != null && cached.modified == modsDir.lastModified()) {
+            return cached.mods;
+        }
+
+        long modified = modsDir.lastModified();
+        File[] jars = modsDir.listFiles(file -> file.isFile() && file.getName().endsWith(".jar"));
+        List<ModInfo> mods = ModIndex.index(manifest.getName(), jars == null ? Collections.emptyList() : Arrays.asList(jars));
+        ModIndex.instanceCache.put(manifest.getName(), new InstanceMods(modified, mods));
+        return mods;
+    }
+
+    private static synchronized List<ModInfo> index(String instance, List<File> jars) throws InterruptedException, ExecutionException {
+        if (ModIndex.data == null) {
+            ModIndex.data = ModIndex.load();
+        }
+
+        Map<String, FileInfo> files = ModIndex.data.files.computeIfAbsent(instance, name -> new HashMap<>());
+        Map<String, FileInfo> currentFiles = new HashMap<>();
+        List<File> changed = new ArrayList<>();
+        for (File jar : jars) {
+            FileInfo known = files.get(jar.getName());
+            if (known != null && known.size == jar.length() && known.modified == jar.lastModified() && ModIndex.data.jars.containsKey(known.sha1)) {
+                currentFiles.put(jar.getName(), known);
+            } else {
+                changed.add(jar);
+            }
+        }
+
+        boolean modified = currentFiles.size() != files.size() || !changed.isEmpty();
+        if (!changed.isEmpty()) {
+            List<Callable<FileInfo>> hashTasks = changed.stream()
+                    .<Callable<FileInfo>>map(jar -> () -> ModIndex.hash(jar))
+                    .collect(Collectors.toList());
+            Map<String, File> unknownJars = new LinkedHashMap<>();
+            for (Future<FileInfo> future : ModIndex.ioPool.invokeAll(hashTasks)) {
+                FileInfo info = future.get();
+                if (info == null) {
+                    continue;
+                }
+
+                currentFiles.put(info.name, info);
+                if (!ModIndex.data.jars.containsKey(info.sha1)) {
+                    unknownJars.putIfAbsent(info.sha1, info.file);
+                }
+            }
+
+            List<Callable<List<ModInfo>>> readTasks = unknownJars.values().stream()
+                    .<Callable<List<ModInfo>>>map(jar -> () -> ModIndex.read(jar))
+                    .collect(Collectors.toList());
+            List<Future<List<ModInfo>>> results = ModIndex.ioPool.invokeAll(readTasks);
+            int i = 0;
+            for (String sha1 : unknownJars.keySet()) {
+                ModIndex.data.jars.put(sha1, results.get(i++).get());
+            }
+            ModIndex.log.info("Modindex {}: {} Jars geprüft, {} neu eingelesen", instance, changed.size(), unknownJars.size());
+        }
+
+        ModIndex.data.files.put(instance, currentFiles);
+        if (modified) {
+            Set<String> referenced = ModIndex.data.files.values().stream()
+                    .flatMap(instanceFiles -> instanceFiles.values().stream())
+                    .map(info -> info.sha1)
+                    .collect(Collectors.toSet());
+            ModIndex.data.jars.keySet().retainAll(referenced);
+            ModIndex.save();
+        }
+
+        List<ModInfo> mods = new ArrayList<>();
+        currentFiles.forEach((name, info) -> ModIndex.data.jars.get(info.sha1).forEach(mod -> mods.add(mod.withFile(name))));
+        mods.sort(Comparator.comparing(mod -> mod.getName() == null ? mod.getFile() : mod.getName(), String.CASE_INSENSITIVE_ORDER));
+        return Collections.unmodifiableList(mods);
+    }
+
+    private static File getIndexFile() {
+        return new File(Launcher.getInstance().getSaveSubDirectory("modindex"), "index.json");
+    }
+
+    private static IndexData load() {
+        File indexFile = ModIndex.getIndexFile();
+        if (indexFile.isFile()) {
+            try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+                IndexData data = ModIndex.gson.fromJson(reader, IndexData.class);
+                if (data != null && data.version == ModIndex.version) {
+                    return data;
+                }
+            } catch (IOException | JsonParseException e) {
+                ModIndex.log.warn("Modindex konnte nicht gelesen werden, er wird neu aufgebaut", e);
+            }
+        }
+
+        return new IndexData();
+    }
+
+    private static void save() {
+        try {
+            File indexFile = ModIndex.getIndexFile();
+            File temp = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+            Files.write(temp.toPath(), ModIndex.gson.toJson(ModIndex.data).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ModIndex.log.warn("Modindex konnte nicht gespeichert werden", e);
+        }
+    }
+
+    private static FileInfo hash(File jar) {
+        try (InputStream inputStream = Files.newInputStream(jar.toPath())) {
+            FileInfo info = new FileInfo();
+            info.name = jar.getName();
+            info.file = jar;
+            info.size = jar.length();
+            info.modified = jar.lastModified();
+            info.sha1 = DigestUtils.sha1Hex(inputStream);
+            return info;
+        } catch (IOException e) {
+            ModIndex.log.warn("Jar " + jar + " konnte nicht gelesen werden", e);
+            return null;
+        }
+    }
+
+    /**
+     * Liest die Metadaten eines Jars. Jars ohne bekannte Metadatei werden mit ihrem Dateinamen aufgeführt, damit die Liste vollständig
+     * bleibt.
+     */
+    private static List<ModInfo> read(File jar) {
+        List<ModInfo> mods = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            String implementationVersion = null;
+            ZipEntry manifestEntry = zipFile.getEntry("META-INF/MANIFEST.MF");
+            if (manifestEntry != null) {
+                try (InputStream inputStream = zipFile.getInputStream(manifestEntry)) {
+                    implementationVersion = new Manifest(inputStream).getMainAttributes().getValue("Implementation-Version");
+                }
+            }
+
+            ZipEntry fabricEntry = zipFile.getEntry("fabric.mod.json");
+            ZipEntry tomlEntry = zipFile.getEntry("META-INF/mods.toml");
+            ZipEntry mcmodEntry = zipFile.getEntry("mcmod.info");
+            if (fabricEntry != null) {
+                try (Reader reader = new InputStreamReader(zipFile.getInputStream(fabricEntry), StandardCharsets.UTF_8)) {
+                    ModIndex.readFabric(ModIndex.gson.fromJson(reader, JsonElement.class), mods);
+                }
+            }
+            if (tomlEntry != null) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(tomlEntry), StandardCharsets.UTF_8))) {
+                    ModIndex.readModsToml(reader, implementationVersion, mods);
+                }
+            }
+            if (mcmodEntry != null) {
+                try (Reader reader = new InputStreamReader(zipFile.getInputStream(mcmodEntry), StandardCharsets.UTF_8)) {
+                    ModIndex.readMcmodInfo(ModIndex.gson.fromJson(reader, JsonElement.class), implementationVersion, mods);
+                }
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            ModIndex.log.debug("Metadaten von {} konnten nicht gelesen werden: {}", jar, e.toString());
+        }
+
+        if (mods.isEmpty()) {
+            mods.add(new ModInfo(null, null, null, null, Collections.emptyList(), null));
+        }
+        return mods;
+    }
+
+    private static void readFabric(JsonElement json, List<ModInfo> mods) {
+        if (json == null || !json.isJsonObject()) {
+            return;
+        }
+
+        JsonObject mod = json.getAsJsonObject();
+        List<String> dependencies = mod.has("depends") && mod.get("depends").isJsonObject()
+                ? new ArrayList<>(mod.getAsJsonObject("depends").keySet())
+                : Collections.emptyList();
+        mods.add(new ModInfo(ModIndex.getString(mod, "id"), ModIndex.getString(mod, "name"), ModIndex.getString(mod, "version"),
+                "fabric", dependencies, null));
+    }
+
+    static void readMcmodInfo(JsonElement json, String implementationVersion, List<ModInfo> mods) {
+        JsonArray modList;
+        if (json == null) {
+            return;
+        } else if (json.isJsonArray()) {
+            modList = json.getAsJsonArray();
+        } else if (json.isJsonObject() && json.getAsJsonObject().has("modList")) {
+            modList = json.getAsJsonObject().getAsJsonArray("modList"); // modListVersion 2
+        } else {
+            return;
+        }
+
+        for (JsonElement element : modList) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+
+            JsonObject mod = element.getAsJsonObject();
+            List<String> dependencies = new ArrayList<>();
+            for (String key : new String[] {"requiredMods", "dependencies"}) {
+                if (mod.has(key) && mod.get(key).isJsonArray()) {
+                    for (JsonElement dependency : mod.getAsJsonArray(key)) {
+                        String id = dependency.getAsString();
+                        id = id.contains("@") ? id.substring(0, id.indexOf('@')) : id;
+                        if (!dependencies.contains(id)) {
+                            dependencies.add(id);
+                        }
+                    }
+                }
+            }
+
+            mods.add(new ModInfo(ModIndex.getString(mod, "modid"), ModIndex.getString(mod, "name"),
+                    ModIndex.resolveVersion(ModIndex.getString(mod, "version"), implementationVersion), "forge", dependencies, null));
+        }
+    }
+
+    /**
+     * Minimaler TOML-Leser für {@code mods.toml}. Ausgewertet werden nur die Tabellen {@code [[mods]]} und
+     * {@code [[dependencies.<modId>]]} mit einfachen Schlüssel-Wert-Paaren, mehrzeilige Zeichenketten werden übersprungen.
+     */
+    static void readModsToml(BufferedReader reader, String implementationVersion, List<ModInfo> mods) throws IOException {
+        List<Map<String, String>> modTables = new ArrayList<>();
+        Map<String, List<Map<String, String>>> dependencyTables = new HashMap<>();
+        Map<String, String> current = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            if (line.startsWith("[")) {
+                String table = line.substring(0, line.lastIndexOf(']') + 1).replaceAll("[\\[\\]\\s]", "");
+                current = new HashMap<>();
+                if (line.startsWith("[[") && table.equals("mods")) {
+                    modTables.add(current);
+                } else if (line.startsWith("[[") && table.startsWith("dependencies.")) {
+                    dependencyTables.computeIfAbsent(table.substring("dependencies.".length()), mod -> new ArrayList<>()).add(current);
+                }
+                continue;
+            }
+
+            int separator = line.indexOf('=');
+            if (separator < 0) {
+                continue;
+            }
+
+            String key = line.substring(0, separator).trim().replace("\"", "");
+            String value = line.substring(separator + 1).trim();
+            if (value.startsWith("'''") || value.startsWith("\"\"\"")) {
+                String delimiter = value.substring(0, 3);
+                if (value.indexOf(delimiter, 3) < 0) {
+                    while ((line = reader.readLine()) != null && !line.contains(delimiter)) {
+                        // Mehrzeilige Zeichenkette, z.B. description
+                    }
+                }
+                continue;
+            }
+
+            if (current != null) {
+                current.put(key, ModIndex.parseTomlValue(value));
+            }
+        }
+
+        for (Map<String, String> mod : modTables) {
+            String id = mod.get("modId");
+            List<String> dependencies = dependencyTables.getOrDefault(id, Collections.emptyList()).stream()
+                    .filter(dependency -> !"false".equals(dependency.get("mandatory")) && !"optional".equals(dependency.get("type")))
+                    .map(dependency -> dependency.get("modId"))
+                    .filter(dependency -> dependency != null)
+                    .collect(Collectors.toList());
+            mods.add(new ModInfo(id, mod.get("displayName"), ModIndex.resolveVersion(mod.get("version"), implementationVersion),
+                    "forge", dependencies, null));
+        }
+    }
+
+    private static String parseTomlValue(String value) {
+        if (value.startsWith("\"") || value.startsWith("'")) {
+            int end = value.indexOf(value.charAt(0), 1);
+            return end < 0 ? value.substring(1) : value.substring(1, end);
+        }
+
+        int comment = value.indexOf('#');
+        return (comment < 0 ? value : value.substring(0, comment)).trim();
+    }
+
+    private static String resolveVersion(String version, String implementationVersion) {
+        if (version == null || version.contains("${")) {
+            return implementationVersion;
+        }
+        return version;
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private static class InstanceMods {
+        private final long modified;
+        private final List<ModInfo> mods;
+
+        private InstanceMods(long modified, List<ModInfo> mods) {
+            this.modified = modified;
+            this.mods = mods;
+        }
+    }
+
+    private static class IndexData {
+        private int version = ModIndex.version;
+        private Map<String, Map<String, FileInfo>> files = new HashMap<>();
+        private Map<String, List<ModInfo>> jars = new HashMap<>();
+    }
+
+    private static class FileInfo {
+        private String name;
+        private transient File file;
+        private long size;
+        private long modified;
+        private String sha1;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.Launcher;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Eine mit finalem Klassenpfad und allen JVM-Argumenten vorgestartete JVM, welche in {@link WarmBootstrap} auf die Spielargumente wartet.
+ */
+class PrespawnedProcess {
+    private static final Logger log = LoggerFactory.getLogger(PrespawnedProcess.class);
+    private static final int handshakeTimeout = (int) TimeUnit.SECONDS.toMillis(10);
+
+    private final LaunchContext context;
+    private final Process process;
+    private final ServerSocket serverSocket;
+    private final String secret;
+
+    private PrespawnedProcess(LaunchContext context, Process process, ServerSocket serverSocket, String secret) {
+        this.context = context;
+        this.process = process;
+        this.serverSocket = serverSocket;
+        this.secret = secret;
+    }
+
+    static PrespawnedProcess spawn(LaunchContext context) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 4, InetAddress.getLoopbackAddress());
+        try {
+            String secret = UUID.randomUUID().toString();
+            List<String> arguments = context.getBootstrapCommandLine(PrespawnedProcess.extractBootstrap(), serverSocket.getLocalPort(), secret);
+
+            ProcessBuilder builder = new ProcessBuilder(arguments);
+            builder.directory(context.getModpackManifest().getInstanceDir());
+            return new PrespawnedProcess(context, builder.start(), serverSocket, secret);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Kopiert {@link WarmBootstrap} in ein eigenes Verzeichnis, damit der Klassenpfad des Spiels keine Bibliotheken des Launchers enthält.
+     *
+     * @return Klassenpfadeintrag mit {@link WarmBootstrap}
+     * @throws IOException Fehler beim Kopieren
+     */
+    private static File extractBootstrap() throws IOException {
+        File bootstrapDir = Launcher.getInstance().getSaveSubDirectory("temp/bootstrap");
+        String classFile = WarmBootstrap.class.getName().replace('.', '/') + ".class";
+        File target = new File(bootstrapDir, classFile);
+        target.getParentFile().mkdirs();
+
+        try (InputStream inputStream = WarmBootstrap.class.getResourceAsStream("/" + classFile)) {
+            Files.copy(inputStream, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return bootstrapDir;
+    }
+
+    LaunchContext getContext() {
+        return this.context;
+    }
+
+    Process getProcess() {
+        return this.process;
+    }
+
+    boolean matches(String settingsKey) {
+        return this.process.isAlive() && this.context.getSettingsKey().equals(settingsKey);
+    }
+
+    /**
+     * Übergibt die Spielargumente an die wartende JVM, welche daraufhin die eigentliche Hauptklasse startet.
+     *
+     * @param gameArguments Spielargumente mit ersetzten Platzhaltern
+     * @throws IOException Die JVM hat sich nicht rechtzeitig gemeldet
+     */
+    void start(List<String> gameArguments) throws IOException {
+        this.serverSocket.setSoTimeout(PrespawnedProcess.handshakeTimeout);
+        try {
+            while (true) {
+                try (Socket socket = this.serverSocket.accept()) {
+                    socket.setSoTimeout(PrespawnedProcess.handshakeTimeout);
+                    if (!this.secret.equals(new DataInputStream(socket.getInputStream()).readUTF())) {
+                        PrespawnedProcess.log.warn("Ungültige Verbindung zu vorgestartetem Prozess abgelehnt");
+                        continue;
+                    }
+
+                    DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    outputStream.writeInt(gameArguments.size());
+                    for (String argument : gameArguments) {
+                        outputStream.writeUTF(argument);
+                    }
+                    outputStream.flush();
+                    return;
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Vorgestarteter Prozess hat sich nicht gemeldet", e);
+                }
+            }
+        } finally {
+            this.serverSocket.close();
+        }
+    }
+
+    /**
+     * Beendet die wartende JVM und löscht die zugehörigen Natives.
+     */
+    void discard() {
+        this.process.destroy();
+        try {
+            this.serverSocket.close();
+            this.process.waitFor(5, TimeUnit.SECONDS);
+        } catch (IOException | InterruptedException e) {
+            // Ignore
+        }
+        this.context.cleanup();
+    }
+
+}
@@ -18,71 +18,137 @@
 
 package de.myftb.launcher.launch;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 
+/**
+ * Liest eine Ausgabe eines Prozesses und gibt sie zeilenweise als {@link LogLine} weiter.
+ * Puffer und Decoder werden wiederverwendet, sodass nur pro vollständiger Zeile ein String entsteht.
+ */
 public class ProcessLogConsumer extends Thread {
+    private static final int bufferSize = 8192;
+    private static final int maxLineLength = 65536;
+
     private final InputStream inputStream;
-    private final PrintWriter outputWriter;
+    private final boolean errorStream;
+    private final Consumer<LogLine> lineConsumer;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(ProcessLogConsumer.bufferSize);
+    private final CharBuffer charBuffer = CharBuffer.allocate(ProcessLogConsumer.bufferSize);
+    private final StringBuilder line = new StringBuilder();
 
-    public ProcessLogConsumer(InputStream inputStream, OutputStream outputStream) {
+    public ProcessLogConsumer(InputStream inputStream, boolean errorStream, Charset charset, Consumer<LogLine> lineConsumer) {
         this.inputStream = inputStream;
-        this.outputWriter = new PrintWriter(outputStream);
-        this.setName("ProcessLogConsumer-" + inputStream.hashCode() + "-" + outputStream.hashCode());
+        this.errorStream = errorStream;
+        this.lineConsumer = lineConsumer;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.setName("ProcessLogConsumer-" + inputStream.hashCode());
         this.setDaemon(true);
     }
 
     @Override
     public void run() {
-        byte[] buffer = new byte[1024];
-
         try {
             int read;
-            while ((read = this.inputStream.read(buffer)) != -1) {
-                String readStr = new String(buffer, 0, read);
-                this.outputWriter.append(readStr);
-                this.outputWriter.flush();
+            while ((read = this.inputStream.read(this.byteBuffer.array(), this.byteBuffer.position(), this.byteBuffer.remaining())) != -1) {
+                this.byteBuffer.position(this.byteBuffer.position() + read);
+                this.decode(false);
             }
         } catch (IOException e) {
             // Ignore
         } finally {
+            this.decode(true);
+            if (this.line.length() > 0) {
+                this.emitLine();
+            }
+
             try {
                 this.inputStream.close();
-                this.outputWriter.close();
             } catch (IOException e) {
                 // Ignore
             }
         }
     }
 
-    public static void attach(Process process, Consumer<String> stringConsumer) {
-        ConsumingOutputStream outputStream = new ConsumingOutputStream(stringConsumer);
-        ProcessLogConsumer stdOutConsumer = new ProcessLogConsumer(process.getInputStream(), outputStream);
-        stdOutConsumer.start();
-        ProcessLogConsumer stdErrConsumer = new ProcessLogConsumer(process.getErrorStream(), outputStream);
-        stdErrConsumer.start();
+    /**
+     * Dekodiert die gelesenen Bytes, unvollständige Zeichen verbleiben für den nächsten Durchlauf im Puffer.
+     */
+    private void decode(boolean endOfInput) {
+        this.byteBuffer.flip();
+        while (true) {
+            boolean overflow = this.decoder.decode(this.byteBuffer, this.charBuffer, endOfInput).isOverflow();
+            if (endOfInput && !overflow) {
+                overflow = this.decoder.flush(this.charBuffer).isOverflow();
+            }
+            this.charBuffer.flip();
+            this.splitLines();
+            this.charBuffer.clear();
+            if (!overflow) {
+                break;
+            }
+        }
+        this.byteBuffer.compact();
     }
 
-    private static class ConsumingOutputStream extends ByteArrayOutputStream {
-        private final Consumer<String> dataConsumer;
+    private void splitLines() {
+        char[] chars = this.charBuffer.array();
+        int lineStart = this.charBuffer.position();
+        int end = this.charBuffer.limit();
+        for (int i = lineStart; i < end; i++) {
+            if (chars[i] == '\n') {
+                this.line.append(chars, lineStart, i - lineStart);
+                this.emitLine();
+                lineStart = i + 1;
+            } else if (this.line.length() + (i - lineStart) >= ProcessLogConsumer.maxLineLength) {
+                this.line.append(chars, lineStart, i - lineStart);
+                this.emitLine();
+                lineStart = i;
+            }
+        }
+        this.line.append(chars, lineStart, end - lineStart);
+    }
 
-        public ConsumingOutputStream(Consumer<String> dataConsumer) {
-            this.dataConsumer = dataConsumer;
+    private void emitLine() {
+        int length = this.line.length();
+        if (length > 0 && this.line.charAt(length - 1) == '\r') {
+            length--;
         }
 
-        @Override
-        public void flush() {
-            String data = this.toString();
-            if (data.isEmpty()) {
-                return;
-            }
+        this.lineConsumer.accept(LogLine.parse(this.line.substring(0, length), this.errorStream));
+        this.line.setLength(0);
+    }
+
+    /**
+     * Startet je einen Leser für stdout und stderr des Prozesses.
+     *
+     * @return die gestarteten Leser, siehe {@link #await(List, long)}
+     */
+    public static List<ProcessLogConsumer> attach(Process process, Consumer<LogLine> lineConsumer) {
+        List<ProcessLogConsumer> consumers = Arrays.asList(
+                new ProcessLogConsumer(process.getInputStream(), false, Charset.defaultCharset(), lineConsumer),
+                new ProcessLogConsumer(process.getErrorStream(), true, Charset.defaultCharset(), lineConsumer));
+        consumers.forEach(Thread::start);
+        return consumers;
+    }
 
-            this.dataConsumer.accept(data);
-            this.reset();
+    /**
+     * Wartet, bis die Leser die restliche Ausgabe verarbeitet haben. Nach Prozessende können sich noch Zeilen in den Pipes befinden,
+     * häufig gerade der Stacktrace eines Absturzes. Hält ein Kindprozess die Pipes offen, wird nach Ablauf des Timeouts aufgegeben.
+     */
+    public static void await(List<ProcessLogConsumer> consumers, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (ProcessLogConsumer consumer : consumers) {
+            consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
         }
     }
 
@@ -0,0 +1,367 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+import de.myftb.launcher.models.launcher.Platform;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Liest kumulierte Ressourcenzähler eines Prozesses samt aller Kindprozesse über die Mittel des jeweiligen Betriebssystems.
+ */
+abstract class ProcessStatsReader {
+    private static final Splitter whitespaceSplitter = Splitter.onPattern("\\s+").omitEmptyStrings();
+
+    /**
+     * Liest die aufsummierten Zähler des Prozessbaums.
+     *
+     * @param pid Prozess-ID der Wurzel
+     * @return Zähler oder {@link Optional#empty()}, falls der Prozess nicht mehr existiert
+     */
+    abstract Optional<ProcessStats> read(long pid);
+
+    /**
+     * Gibt vom Leser gehaltene Ressourcen frei, nachdem die Erfassung beendet wurde.
+     */
+    void close() {
+    }
+
+    static Optional<ProcessStatsReader> forPlatform() {
+        switch (Platform.getPlatform()) {
+            case LINUX:
+                return new File("/proc/self/stat").isFile() ? Optional.of(new ProcfsReader()) : Optional.empty();
+            case OSX:
+                return Optional.of(new PsReader());
+            case WINDOWS:
+                return Optional.of(new CimReader());
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Set<Long> collectTree(long pid, Map<Long, List<Long>> children) {
+        Set<Long> tree = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(pid);
+        while (!queue.isEmpty()) {
+            Long current = queue.poll();
+            if (tree.add(current)) {
+                queue.addAll(children.getOrDefault(current, new ArrayList<>()));
+            }
+        }
+        return tree;
+    }
+
+    private static List<String> execute(String... command) throws IOException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    static class ProcessStats {
+        long cpuTime; // Nanosekunden
+        long rss; // Bytes
+        int threads = -1;
+        long readBytes = -1;
+        long writeBytes = -1;
+        int processes;
+    }
+
+    /**
+     * Linux: /proc/[pid]/stat, /proc/[pid]/status und /proc/[pid]/io.
+     */
+    private static class ProcfsReader extends ProcessStatsReader {
+        private static final long clockTicks = 100; // USER_HZ, auf allen gängigen Architekturen 100
+
+        @Override
+        Optional<ProcessStats> read(long pid) {
+            if (!new File("/proc/" + pid).isDirectory()) {
+                return Optional.empty();
+            }
+
+            ProcessStats stats = new ProcessStats();
+            stats.threads = 0;
+            stats.readBytes = 0;
+            stats.writeBytes = 0;
+            for (long treePid : ProcessStatsReader.collectTree(pid, this.readChildren(pid))) {
+                try {
+                    List<String> statFields = this.readStat(treePid);
+                    stats.cpuTime += TimeUnit.SECONDS.toNanos(Long.parseLong(statFields.get(11)) + Long.parseLong(statFields.get(12)))
+                            / ProcfsReader.clockTicks;
+                    stats.threads += Integer.parseInt(statFields.get(17));
+
+                    for (String line : Files.readAllLines(new File("/proc/" + treePid + "/status").toPath(), StandardCharsets.UTF_8)) {
+                        if (line.startsWith("VmRSS:")) {
+                            stats.rss += Long.parseLong(ProcessStatsReader.whitespaceSplitter.splitToList(line).get(1)) * 1024;
+                        }
+                    }
+
+                    File ioFile = new File("/proc/" + treePid + "/io");
+                    if (ioFile.canRead()) {
+                        for (String line : Files.readAllLines(ioFile.toPath(), StandardCharsets.UTF_8)) {
+                            if (line.startsWith("read_bytes:")) {
+                                stats.readBytes += Long.parseLong(line.substring(11).trim());
+                            } else if (line.startsWith("write_bytes:")) {
+                                stats.writeBytes += Long.parseLong(line.substring(12).trim());
+                            }
+                        }
+                    }
+                    stats.processes++;
+                } catch (IOException | RuntimeException e) {
+                    // Prozess wurde zwischenzeitlich beendet
+                }
+            }
+
+            return stats.processes == 0 ? Optional.empty() : Optional.of(stats);
+        }
+
+        /**
+         * Gibt die Felder ab dem Prozesszustand (Feld 3) zurück, da der Prozessname Leerzeichen enthalten kann.
+         */
+        private List<String> readStat(long pid) throws IOException {
+            String stat = new String(Files.readAllBytes(new File("/proc/" + pid + "/stat").toPath()), StandardCharsets.UTF_8);
+            return ProcessStatsReader.whitespaceSplitter.splitToList(stat.substring(stat.lastIndexOf(')') + 1));
+        }
+
+        private Map<Long, List<Long>> readChildren(long pid) {
+            Map<Long, List<Long>> children = new HashMap<>();
+            if (new File("/proc/" + pid + "/task/" + pid + "/children").isFile()) {
+                Deque<Long> queue = new ArrayDeque<>();
+                queue.add(pid);
+                while (!queue.isEmpty()) {
+                    long parentPid = queue.poll();
+                    File[] taskDirs = new File("/proc/" + parentPid + "/task").listFiles();
+                    for (File taskDir : taskDirs == null ? new File[0] : taskDirs) {
+                        try {
+                            String childPids = new String(Files.readAllBytes(new File(taskDir, "children").toPath()), StandardCharsets.UTF_8);
+                            for (String childPid : ProcessStatsReader.whitespaceSplitter.split(childPids)) {
+                                children.computeIfAbsent(parentPid, key -> new ArrayList<>()).add(Long.parseLong(childPid));
+                                queue.add(Long.parseLong(childPid));
+                            }
+                        } catch (IOException e) {
+                            // Thread wurde zwischenzeitlich beendet
+                        }
+                    }
+                }
+                return children;
+            }
+
+            // Kernel ohne CONFIG_PROC_CHILDREN, Elternprozesse aller Prozesse lesen
+            File[] processDirs = new File("/proc").listFiles((dir, name) -> !name.isEmpty() && name.chars().allMatch(Character::isDigit));
+            if (processDirs == null) {
+                return children;
+            }
+
+            for (File processDir : processDirs) {
+                long childPid = Long.parseLong(processDir.getName());
+                if (childPid == pid) {
+                    continue;
+                }
+
+                try {
+                    long parentPid = Long.parseLong(this.readStat(childPid).get(1));
+                    children.computeIfAbsent(parentPid, key -> new ArrayList<>()).add(childPid);
+                } catch (IOException | RuntimeException e) {
+                    // Prozess wurde zwischenzeitlich beendet
+                }
+            }
+            return children;
+        }
+    }
+
+    /**
+     * macOS: ps, Threads und I/O sind hierüber nicht verfügbar. Abgefragt werden nur die bekannten Prozesse des Spiels, nach neuen
+     * Kindprozessen wird lediglich alle {@value #childScanInterval} Messungen gesucht.
+     */
+    private static class PsReader extends ProcessStatsReader {
+        private static final int childScanInterval = 15;
+        private final Set<Long> tree = new HashSet<>();
+        private int samples = 0;
+
+        @Override
+        synchronized Optional<ProcessStats> read(long pid) {
+            this.tree.add(pid);
+            Map<Long, List<String>> rows = new HashMap<>();
+            try {
+                if (this.samples++ % PsReader.childScanInterval == 0) {
+                    for (String line : ProcessStatsReader.execute("pgrep", "-P", Joiner.on(',').join(this.tree))) {
+                        if (!line.trim().isEmpty()) {
+                            this.tree.add(Long.parseLong(line.trim()));
+                        }
+                    }
+                }
+
+                for (String line : ProcessStatsReader.execute("ps", "-o", "pid=,ppid=,rss=,time=", "-p", Joiner.on(',').join(this.tree))) {
+                    List<String> columns = ProcessStatsReader.whitespaceSplitter.splitToList(line);
+                    if (columns.size() >= 4) {
+                        rows.put(Long.parseLong(columns.get(0)), columns);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                return Optional.empty();
+            }
+
+            this.tree.retainAll(rows.keySet());
+            if (!rows.containsKey(pid)) {
+                return Optional.empty();
+            }
+
+            ProcessStats stats = new ProcessStats();
+            for (List<String> columns : rows.values()) {
+                stats.rss += Long.parseLong(columns.get(2)) * 1024;
+                stats.cpuTime += PsReader.parseTime(columns.get(3));
+                stats.processes++;
+            }
+            return Optional.of(stats);
+        }
+
+        /**
+         * Wandelt eine CPU-Zeit im Format [[dd-]hh:]mm:ss.ss in Nanosekunden um.
+         */
+        private static long parseTime(String time) {
+            long days = 0;
+            int dayEnd = time.indexOf('-');
+            if (dayEnd != -1) {
+                days = Long.parseLong(time.substring(0, dayEnd));
+                time = time.substring(dayEnd + 1);
+            }
+
+            double seconds = 0;
+            for (String part : Splitter.on(':').split(time)) {
+                seconds = seconds * 60 + Double.parseDouble(part);
+            }
+            return TimeUnit.DAYS.toNanos(days) + (long) (seconds * 1e9);
+        }
+    }
+
+    /**
+     * Windows: Win32_Process über CIM, Zeiten in 100 ns, I/O umfasst sämtliche Transfers und nicht nur Datenträgerzugriffe.
+     * Eine PowerShell bleibt für die gesamte Sitzung geöffnet und fragt je Messung nur die Prozesse des Spiels und deren Kinder ab,
+     * statt für jede Messung einen Prozess über alle Prozesse des Systems zu starten (wmic ist zudem nicht mehr überall vorhanden).
+     */
+    private static class CimReader extends ProcessStatsReader {
+        private static final String endMarker = "--END--";
+        private final Set<Long> tree = new HashSet<>();
+        private Process shell;
+        private BufferedReader output;
+        private Writer input;
+
+        @Override
+        synchronized Optional<ProcessStats> read(long pid) {
+            this.tree.add(pid);
+            Map<Long, List<String>> rows = new HashMap<>();
+            try {
+                if (this.shell == null || !this.shell.isAlive()) {
+                    this.shell = new ProcessBuilder("powershell.exe", "-NoLogo", "-NoProfile", "-NonInteractive", "-Command", "-")
+                            .redirectErrorStream(true)
+                            .start();
+                    this.output = new BufferedReader(new InputStreamReader(this.shell.getInputStream(), StandardCharsets.UTF_8));
+                    this.input = new OutputStreamWriter(this.shell.getOutputStream(), StandardCharsets.UTF_8);
+                }
+
+                String filter = this.tree.stream()
+                        .map(treePid -> "ProcessId=" + treePid + " OR ParentProcessId=" + treePid)
+                        .collect(Collectors.joining(" OR "));
+                this.input.write("Get-CimInstance Win32_Process -Filter '" + filter + "' | ForEach-Object { "
+                        + "\"$($_.ProcessId),$($_.ParentProcessId),$($_.WorkingSetSize),$($_.KernelModeTime),$($_.UserModeTime),"
+                        + "$($_.ThreadCount),$($_.ReadTransferCount),$($_.WriteTransferCount)\" }; '" + CimReader.endMarker + "'\r\n");
+                this.input.flush();
+
+                String line;
+                while ((line = this.output.readLine()) != null && !line.equals(CimReader.endMarker)) {
+                    List<String> columns = Splitter.on(',').trimResults().splitToList(line);
+                    if (columns.size() == 8 && !columns.get(0).isEmpty() && columns.get(0).chars().allMatch(Character::isDigit)) {
+                        rows.put(Long.parseLong(columns.get(0)), columns);
+                    }
+                }
+                if (line == null) {
+                    this.close();
+                    return Optional.empty();
+                }
+            } catch (IOException | RuntimeException e) {
+                this.close();
+                return Optional.empty();
+            }
+
+            if (!rows.containsKey(pid)) {
+                return Optional.empty();
+            }
+
+            // Die Abfrage liefert bekannte Prozesse und deren direkte Kinder, tiefere Ebenen folgen in den nächsten Messungen
+            Map<Long, List<Long>> children = new HashMap<>();
+            rows.forEach((rowPid, columns) -> children.computeIfAbsent(Long.parseLong(columns.get(1)), key -> new ArrayList<>()).add(rowPid));
+            this.tree.clear();
+            this.tree.addAll(ProcessStatsReader.collectTree(pid, children));
+
+            ProcessStats stats = new ProcessStats();
+            stats.threads = 0;
+            stats.readBytes = 0;
+            stats.writeBytes = 0;
+            for (long treePid : this.tree) {
+                List<String> columns = rows.get(treePid);
+                if (columns == null) {
+                    continue;
+                }
+                stats.rss += Long.parseLong(columns.get(2));
+                stats.cpuTime += (Long.parseLong(columns.get(3)) + Long.parseLong(columns.get(4))) * 100;
+                stats.threads += Integer.parseInt(columns.get(5));
+                stats.readBytes += Long.parseLong(columns.get(6));
+                stats.writeBytes += Long.parseLong(columns.get(7));
+                stats.processes++;
+            }
+            return Optional.of(stats);
+        }
+
+        @Override
+        synchronized void close() {
+            if (this.shell != null) {
+                this.shell.destroy();
+                this.shell = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verwaltet alle vom Launcher gestarteten Spiele.
+ * Pro Modpack kann ein Spiel gleichzeitig laufen, beendete Spiele bleiben mit ihrem Log bis zum nächsten Start erhalten.
+ */
+public class ProcessSupervisor {
+    private static final Logger log = LoggerFactory.getLogger(ProcessSupervisor.class);
+    private static final Gson gson = new Gson();
+    private final Map<String, GameInstance> instances = new ConcurrentHashMap<>();
+    private volatile GameInstance watchedInstance;
+
+    /**
+     * Legt eine neue Instanz für das Modpack an und ersetzt eine bereits beendete.
+     *
+     * @param modpackManifest Modpack
+     * @return Neue Instanz
+     * @throws IllegalStateException Das Modpack läuft bereits
+     */
+    synchronized GameInstance create(ModpackManifest modpackManifest) {
+        GameInstance existing = this.instances.get(modpackManifest.getName());
+        if (existing != null && existing.isAlive()) {
+            throw new IllegalStateException("Dieses Modpack läuft bereits");
+        }
+
+        GameInstance instance = new GameInstance(modpackManifest);
+        this.instances.put(instance.getId(), instance);
+        this.watch(instance);
+        return instance;
+    }
+
+    void onStarted(GameInstance instance, Process process) {
+        instance.setProcess(process);
+        instance.setResourceMonitor(ResourceMonitor.start(instance).orElse(null));
+        try {
+            instance.setLogStore(SessionLogStore.create(instance.getModpackManifest(), instance.getStartTime()));
+        } catch (IOException e) {
+            ProcessSupervisor.log.warn("Vollständiges Log für " + instance.getId() + " kann nicht gespeichert werden", e);
+        }
+        ProcessSupervisor.log.info("Minecraft Prozess für {} gestartet (PID {})", instance.getId(), instance.getPid());
+        this.updateDiscordPresence();
+        this.publishInstances();
+    }
+
+    void onExited(GameInstance instance, int exitCode) {
+        instance.setExited(exitCode);
+        instance.getResourceMonitor().ifPresent(ResourceMonitor::finish);
+        instance.getLogStore().ifPresent(SessionLogStore::finish);
+        ProcessSupervisor.log.info("Minecraft Prozess für {} nach {} s mit Code {} beendet, {} Bytes Ausgabe, {} Bytes verworfen",
+                instance.getId(), instance.getUptime() / 1000, exitCode, instance.getLogCollector().getTotalBytes(), instance.getDroppedLogBytes());
+        this.updateDiscordPresence();
+        this.publishInstances();
+    }
+
+    public Optional<GameInstance> getInstance(String id) {
+        return Optional.ofNullable(this.instances.get(id));
+    }
+
+    /**
+     * Gibt alle bekannten Instanzen sortiert nach Startzeitpunkt zurück.
+     *
+     * @return Laufende und beendete Instanzen
+     */
+    public List<GameInstance> getInstances() {
+        return this.instances.values().stream()
+                .sorted(Comparator.comparingLong(GameInstance::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    public List<GameInstance> getRunningInstances() {
+        return this.getInstances().stream()
+                .filter(GameInstance::isAlive)
+                .collect(Collectors.toList());
+    }
+
+    public boolean isRunning(String id) {
+        return this.getInstance(id).map(GameInstance::isAlive).orElse(false);
+    }
+
+    /**
+     * Wählt die Instanz, deren Ausgaben an die Konsole der UI gesendet werden.
+     *
+     * @param instance Anzuzeigende Instanz
+     */
+    public synchronized void watch(GameInstance instance) {
+        if (this.watchedInstance != null) {
+            this.watchedInstance.getLogCollector().setStreaming(false);
+        }
+        this.watchedInstance = instance;
+        instance.getLogCollector().setStreaming(true);
+        this.publishInstances();
+    }
+
+    public Optional<GameInstance> getWatchedInstance() {
+        return Optional.ofNullable(this.watchedInstance);
+    }
+
+    /**
+     * Gibt die über IPC angegebene Instanz oder, falls keine angegeben ist, die in der Konsole angezeigte zurück.
+     *
+     * @param data IPC-Daten mit optionalem Feld "instance"
+     * @return Instanz
+     */
+    public Optional<GameInstance> resolveInstance(JsonObject data) {
+        if (data != null && data.has("instance")) {
+            return this.getInstance(data.get("instance").getAsString());
+        }
+        return this.getWatchedInstance();
+    }
+
+    public void killAll() {
+        this.getRunningInstances().forEach(GameInstance::kill);
+    }
+
+    private void updateDiscordPresence() {
+        List<GameInstance> running = this.getRunningInstances();
+        Launcher.getInstance().getDiscordIntegration().setRunningModpack(running.isEmpty() ? null
+                : running.get(running.size() - 1).getModpackManifest());
+    }
+
+    public JsonObject toJson() {
+        JsonArray instances = new JsonArray();
+        for (GameInstance instance : this.getInstances()) {
+            JsonObject instanceObject = new JsonObject();
+            instanceObject.addProperty("id", instance.getId());
+            instanceObject.addProperty("title", instance.getModpackManifest().getTitle());
+            instanceObject.addProperty("state", instance.getState().name().toLowerCase(Locale.ROOT));
+            instanceObject.addProperty("pid", instance.getPid());
+            instanceObject.addProperty("start_time", instance.getStartTime());
+            instanceObject.addProperty("uptime", instance.getUptime());
+            instanceObject.addProperty("exit_code", instance.getExitCode());
+            instanceObject.addProperty("log_bytes", instance.getLogCollector().getTotalBytes());
+            instanceObject.addProperty("dropped_bytes", instance.getDroppedLogBytes());
+            instanceObject.addProperty("dropped_lines", instance.getDroppedLogLines());
+            instanceObject.addProperty("watched", instance == this.watchedInstance);
+            instanceObject.add("diagnoses", ProcessSupervisor.gson.toJsonTree(instance.getDiagnoses()));
+            instances.add(instanceObject);
+        }
+
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.add("instances", instances);
+        return jsonObject;
+    }
+
+    void publishInstances() {
+        Launcher.getInstance().getIpcHandler().send("update_instances", this.toJson());
+    }
+
+}
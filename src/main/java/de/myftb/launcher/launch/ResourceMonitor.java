@@ -0,0 +1,211 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.myftb.launcher.Launcher;
+import de.myftb.launcher.models.launcher.ResourceSample;
+import de.myftb.launcher.models.launcher.ResourceSummary;
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Erfasst in festen Abständen CPU-Last, Arbeitsspeicher, Threads und I/O eines laufenden Spiels.
+ * Die letzten Messwerte werden in einem Ringpuffer gehalten und an die UI gesendet, beim Beenden wird eine Zusammenfassung gespeichert.
+ */
+public class ResourceMonitor extends TimerTask {
+    private static final Logger log = LoggerFactory.getLogger(ResourceMonitor.class);
+    private static final Timer timer = new Timer("ResourceMonitor", true);
+    private static final long sampleInterval = TimeUnit.SECONDS.toMillis(2);
+    private static final int capacity = 300;
+    private static final int storedSessions = 20;
+
+    private final GameInstance instance;
+    private final ProcessStatsReader reader;
+    private final ResourceSample[] samples = new ResourceSample[ResourceMonitor.capacity];
+    private int nextSample = 0;
+    private int sampleCount = 0;
+
+    private ProcessStatsReader.ProcessStats lastStats;
+    private long lastTime;
+
+    private int totalSamples = 0;
+    private double cpuSum = 0;
+    private double cpuMax = 0;
+    private long rssSum = 0;
+    private long rssMax = 0;
+    private int threadsMax = 0;
+    private long bytesRead = 0;
+    private long bytesWritten = 0;
+
+    private ResourceMonitor(GameInstance instance, ProcessStatsReader reader) {
+        this.instance = instance;
+        this.reader = reader;
+    }
+
+    /**
+     * Startet die Erfassung für ein laufendes Spiel.
+     *
+     * @param instance Gestartetes Spiel
+     * @return Erfassung oder {@link Optional#empty()}, falls Prozess-ID oder Betriebssystem nicht unterstützt werden
+     */
+    static Optional<ResourceMonitor> start(GameInstance instance) {
+        if (instance.getPid() == -1) {
+            return Optional.empty();
+        }
+
+        return ProcessStatsReader.forPlatform().map(reader -> {
+            ResourceMonitor monitor = new ResourceMonitor(instance, reader);
+            ResourceMonitor.timer.scheduleAtFixedRate(monitor, 0, ResourceMonitor.sampleInterval);
+            return monitor;
+        });
+    }
+
+    @Override
+    public void run() {
+        Optional<ProcessStatsReader.ProcessStats> stats = this.reader.read(this.instance.getPid());
+        long time = System.nanoTime();
+        if (!stats.isPresent()) {
+            return;
+        }
+
+        ResourceSample sample;
+        synchronized (this) {
+            ProcessStatsReader.ProcessStats last = this.lastStats;
+            this.lastStats = stats.get();
+            long elapsed = time - this.lastTime;
+            this.lastTime = time;
+            if (last == null) {
+                return;
+            }
+
+            double seconds = elapsed / 1e9;
+            double cpu = Math.max(0, stats.get().cpuTime - last.cpuTime) * 100.0 / elapsed;
+            double readRate = -1;
+            double writeRate = -1;
+            if (stats.get().readBytes != -1 && last.readBytes != -1) {
+                long read = Math.max(0, stats.get().readBytes - last.readBytes);
+                long written = Math.max(0, stats.get().writeBytes - last.writeBytes);
+                readRate = read / seconds;
+                writeRate = written / seconds;
+                this.bytesRead += read;
+                this.bytesWritten += written;
+            }
+
+            sample = new ResourceSample(System.currentTimeMillis(), cpu, stats.get().rss, stats.get().threads, readRate, writeRate);
+            this.samples[this.nextSample] = sample;
+            this.nextSample = (this.nextSample + 1) % ResourceMonitor.capacity;
+            this.sampleCount = Math.min(ResourceMonitor.capacity, this.sampleCount + 1);
+
+            this.totalSamples++;
+            this.cpuSum += cpu;
+            this.cpuMax = Math.max(this.cpuMax, cpu);
+            this.rssSum += sample.getRss();
+            this.rssMax = Math.max(this.rssMax, sample.getRss());
+            this.threadsMax = Math.max(this.threadsMax, sample.getThreads());
+        }
+
+        Launcher.getInstance().getIpcHandler().send("resource_sample", ImmutableMap.of("instance", this.instance.getId(), "sample", sample));
+    }
+
+    /**
+     * Gibt die Messwerte im Ringpuffer in zeitlicher Reihenfolge zurück.
+     *
+     * @return Messwerte der letzten {@value #capacity} Intervalle
+     */
+    public synchronized List<ResourceSample> getSamples() {
+        List<ResourceSample> samples = new ArrayList<>(this.sampleCount);
+        int start = (this.nextSample - this.sampleCount + ResourceMonitor.capacity) % ResourceMonitor.capacity;
+        for (int i = 0; i < this.sampleCount; i++) {
+            samples.add(this.samples[(start + i) % ResourceMonitor.capacity]);
+        }
+        return samples;
+    }
+
+    /**
+     * Beendet die Erfassung und speichert die Zusammenfassung der Sitzung im Instanzverzeichnis.
+     */
+    void finish() {
+        this.cancel();
+        this.reader.close();
+
+        ResourceSummary summary;
+        synchronized (this) {
+            if (this.totalSamples == 0) {
+                return;
+            }
+
+            summary = new ResourceSummary(this.instance.getId(), this.instance.getStartTime(), this.instance.getUptime() / 1000,
+                    this.totalSamples, this.cpuSum / this.totalSamples, this.cpuMax, this.rssSum / this.totalSamples, this.rssMax,
+                    this.threadsMax, this.bytesRead, this.bytesWritten);
+        }
+
+        ModpackManifest manifest = this.instance.getModpackManifest();
+        List<ResourceSummary> summaries = new ArrayList<>(ResourceMonitor.getSummaries(manifest));
+        summaries.add(summary);
+        if (summaries.size() > ResourceMonitor.storedSessions) {
+            summaries = summaries.subList(summaries.size() - ResourceMonitor.storedSessions, summaries.size());
+        }
+
+        try {
+            LaunchHelper.mapper.writeValue(ResourceMonitor.getSummaryFile(manifest), summaries);
+        } catch (IOException e) {
+            ResourceMonitor.log.warn("Fehler beim Speichern der Ressourcennutzung für " + manifest.getName(), e);
+        }
+    }
+
+    private static File getSummaryFile(ModpackManifest manifest) {
+        return new File(manifest.getInstanceDir(), "resource-sessions.json");
+    }
+
+    /**
+     * Gibt die Zusammenfassungen der letzten Sitzungen eines Modpacks zurück.
+     *
+     * @param manifest Modpack
+     * @return Zusammenfassungen, älteste zuerst
+     */
+    public static List<ResourceSummary> getSummaries(ModpackManifest manifest) {
+        File summaryFile = ResourceMonitor.getSummaryFile(manifest);
+        if (!summaryFile.isFile()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            return Arrays.asList(LaunchHelper.mapper.readValue(summaryFile, ResourceSummary[].class));
+        } catch (IOException e) {
+            ResourceMonitor.log.warn("Fehler beim Lesen der Ressourcennutzung für " + manifest.getName(), e);
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,413 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Speichert die vollständige Ausgabe einer Spielsitzung auf der Festplatte.
+ * Neue Zeilen werden in eine per Memory-Mapping eingebundene Datei geschrieben, volle Segmente werden im Hintergrund mit GZip komprimiert.
+ * Für jedes Segment wird nur der Offset jeder {@value #indexInterval}. Zeile gehalten, sodass auch sehr lange Logs seitenweise gelesen
+ * und durchsucht werden können, ohne sie vollständig in den Speicher zu laden.
+ */
+public class SessionLogStore {
+    private static final Logger log = LoggerFactory.getLogger(SessionLogStore.class);
+    private static final int segmentSize = 4 * 1024 * 1024;
+    private static final int indexInterval = 64;
+    private static final int keptSessions = 3;
+    private static final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SessionLogStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File directory;
+    private final List<Segment> segments = new ArrayList<>();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel tailChannel;
+    private MappedByteBuffer tail;
+    private Segment tailSegment;
+    private Segment cachedSegment;
+    private byte[] cachedData;
+
+    private SessionLogStore(File directory) throws IOException {
+        this.directory = directory;
+        this.tailChannel = new RandomAccessFile(new File(directory, "tail.log"), "rw").getChannel();
+        this.tail = this.tailChannel.map(FileChannel.MapMode.READ_WRITE, 0, SessionLogStore.segmentSize);
+        this.tailSegment = new Segment(0, 0);
+    }
+
+    /**
+     * Legt den Speicher für eine neue Sitzung im Instanzverzeichnis an und löscht dort die ältesten Sitzungen.
+     *
+     * @param manifest Gestartetes Modpack
+     * @param startTime Startzeitpunkt der Sitzung
+     * @return Speicher der Sitzung
+     * @throws IOException Fehler beim Anlegen der Dateien
+     */
+    static SessionLogStore create(ModpackManifest manifest, long startTime) throws IOException {
+        File sessionsDir = new File(manifest.getInstanceDir(), "logs/launcher-sessions");
+        File directory = new File(sessionsDir, String.valueOf(startTime));
+        directory.mkdirs();
+
+        File[] sessions = sessionsDir.listFiles(File::isDirectory);
+        if (sessions != null && sessions.length > SessionLogStore.keptSessions) {
+            Arrays.sort(sessions, Comparator.comparing(File::getName));
+            for (int i = 0; i < sessions.length - SessionLogStore.keptSessions; i++) {
+                try {
+                    Files.walk(sessions[i].toPath())
+                            .sorted(Comparator.reverseOrder())
+                            .map(Path::toFile)
+                            .forEach(File::delete);
+                } catch (IOException e) {
+                    SessionLogStore.log.warn("Fehler beim Löschen von alter Sitzung " + sessions[i], e);
+                }
+            }
+        }
+
+        return new SessionLogStore(directory);
+    }
+
+    public synchronized void append(LogLine line) {
+        if (this.tail == null) {
+            return;
+        }
+
+        int lineStart = this.tail.position();
+        CharBuffer chars = CharBuffer.wrap(line.getText());
+        CoderResult result = this.encoder.encode(chars, this.tail, true);
+        if (result.isOverflow() || this.tail.remaining() == 0) {
+            // Segment voll, Zeile vollständig im nächsten Segment schreiben
+            this.tail.position(lineStart);
+            this.rollover();
+            lineStart = 0;
+            chars.rewind();
+            this.encoder.reset();
+            if (this.encoder.encode(chars, this.tail, true).isOverflow() || this.tail.remaining() == 0) {
+                this.tail.position(this.tail.limit() - 1);
+            }
+        }
+        this.tail.put((byte) '\n');
+
+        if (this.tailSegment.lineCount % SessionLogStore.indexInterval == 0) {
+            this.tailSegment.addIndex(lineStart);
+        }
+        this.encoder.reset();
+        this.tailSegment.lineCount++;
+    }
+
+    /**
+     * Übergibt das aktuelle Segment zur Komprimierung und beginnt ein neues.
+     * Die Daten bleiben bis zum Abschluss der Komprimierung im Speicher lesbar.
+     */
+    private void rollover() {
+        Segment segment = this.tailSegment;
+        segment.size = this.tail.position();
+        segment.pendingData = new byte[segment.size];
+        this.tail.flip();
+        this.tail.get(segment.pendingData);
+        this.tail.clear();
+        this.segments.add(segment);
+        this.tailSegment = new Segment(segment.number + 1, segment.firstLine + segment.lineCount);
+
+        File segmentFile = new File(this.directory, String.format("segment-%05d.log.gz", segment.number));
+        SessionLogStore.compressor.execute(() -> {
+            try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(segmentFile), 65536)) {
+                outputStream.write(segment.pendingData);
+            } catch (IOException e) {
+                SessionLogStore.log.warn("Fehler beim Komprimieren von Logsegment " + segmentFile, e);
+                return;
+            }
+
+            // Erst nach dem Schließen ist die Datei vollständig, bis dahin lesen Abfragen weiter aus dem Speicher
+            segment.file = segmentFile;
+            segment.pendingData = null;
+        });
+    }
+
+    /**
+     * Komprimiert das letzte Segment und gibt die gemappte Datei frei, danach sind keine weiteren Zeilen möglich.
+     */
+    synchronized void finish() {
+        if (this.tail == null) {
+            return;
+        }
+
+        if (this.tail.position() > 0) {
+            this.rollover();
+        }
+        SessionLogStore.unmap(this.tail);
+        this.tail = null;
+        try {
+            this.tailChannel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        new File(this.directory, "tail.log").delete();
+    }
+
+    /**
+     * Gibt das Mapping sofort frei. Ohne dies bleibt die Datei bis zur Garbage Collection gemappt und lässt sich unter Windows weder
+     * löschen noch mit dem Sitzungsverzeichnis entfernen.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            // Java 9+
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (ReflectiveOperationException e) {
+            // Java 8
+        }
+
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            SessionLogStore.log.debug("Logsegment konnte nicht freigegeben werden", e);
+        }
+    }
+
+    public synchronized long getLineCount() {
+        return this.tailSegment.firstLine + this.tailSegment.lineCount;
+    }
+
+    /**
+     * Liest einen Ausschnitt des Logs.
+     *
+     * @param from Erste Zeile, beginnend bei 0
+     * @param count Maximale Anzahl an Zeilen
+     * @return Gelesene Zeilen
+     * @throws IOException Fehler beim Lesen eines Segments
+     */
+    public synchronized List<String> readLines(long from, int count) throws IOException {
+        List<String> lines = new ArrayList<>(Math.min(count, 1024));
+        long line = Math.max(0, from);
+        while (lines.size() < count && line < this.getLineCount()) {
+            Segment segment = this.getSegment(line);
+            int relativeLine = (int) (line - segment.firstLine);
+            int indexEntry = relativeLine / SessionLogStore.indexInterval;
+
+            ByteBuffer data = this.getData(segment);
+            int offset = segment.index[indexEntry];
+            int end = segment == this.tailSegment ? this.tail.position() : segment.size;
+            for (int i = indexEntry * SessionLogStore.indexInterval; i < relativeLine; i++) {
+                offset = SessionLogStore.nextLine(data, offset, end);
+            }
+
+            while (lines.size() < count && relativeLine < segment.lineCount && offset < end) {
+                int lineEnd = SessionLogStore.nextLine(data, offset, end);
+                lines.add(SessionLogStore.decode(data, offset, Math.max(0, lineEnd - offset - 1)));
+                offset = lineEnd;
+                relativeLine++;
+                line++;
+            }
+
+            if (relativeLine < segment.lineCount) {
+                break; // Zeile über Segmentgrenze, Rest folgt im nächsten Segment
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Durchsucht das Log ab einer Zeile nach einem Text ohne Beachtung der Groß- und Kleinschreibung.
+     *
+     * @param query Gesuchter Text
+     * @param from Erste zu durchsuchende Zeile
+     * @param limit Maximale Anzahl an Treffern
+     * @return Gefundene Zeilen
+     * @throws IOException Fehler beim Lesen eines Segments
+     */
+    public List<Match> search(String query, long from, int limit) throws IOException {
+        return this.search(query, from, limit, () -> false);
+    }
+
+    /**
+     * Wie {@link #search(String, long, int)}, bricht die Suche jedoch zwischen zwei Seiten ab, sobald {@code canceled} zutrifft.
+     */
+    public List<Match> search(String query, long from, int limit, BooleanSupplier canceled) throws IOException {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        List<Match> matches = new ArrayList<>();
+        long line = Math.max(0, from);
+        int pageSize = 4096;
+        while (matches.size() < limit && !canceled.getAsBoolean()) {
+            List<String> lines = this.readLines(line, pageSize);
+            if (lines.isEmpty()) {
+                break;
+            }
+
+            for (int i = 0; i < lines.size() && matches.size() < limit; i++) {
+                if (lines.get(i).toLowerCase(Locale.ROOT).contains(lowerQuery)) {
+                    matches.add(new Match(line + i, lines.get(i)));
+                }
+            }
+            line += lines.size();
+        }
+        return matches;
+    }
+
+    private Segment getSegment(long line) {
+        if (line >= this.tailSegment.firstLine) {
+            return this.tailSegment;
+        }
+
+        int low = 0;
+        int high = this.segments.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.segments.get(middle).firstLine <= line) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return this.segments.get(low);
+    }
+
+    /**
+     * Liefert die Daten eines Segments für absolute Zugriffe. Das aktuelle Segment wird direkt aus der gemappten Datei gelesen.
+     */
+    private ByteBuffer getData(Segment segment) throws IOException {
+        if (segment == this.tailSegment) {
+            return this.tail.duplicate();
+        }
+
+        byte[] pendingData = segment.pendingData;
+        if (pendingData != null) {
+            return ByteBuffer.wrap(pendingData);
+        }
+
+        if (this.cachedSegment != segment) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(segment.size);
+            try (InputStream inputStream = new GZIPInputStream(new FileInputStream(segment.file), 65536)) {
+                byte[] buffer = new byte[65536];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            this.cachedData = outputStream.toByteArray();
+            this.cachedSegment = segment;
+        }
+        return ByteBuffer.wrap(this.cachedData);
+    }
+
+    private static int nextLine(ByteBuffer data, int offset, int end) {
+        while (offset < end && data.get(offset) != '\n') {
+            offset++;
+        }
+        return Math.min(end, offset + 1);
+    }
+
+    private static String decode(ByteBuffer data, int offset, int length) {
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+
+        ByteBuffer line = data.duplicate();
+        line.limit(offset + length).position(offset);
+        return StandardCharsets.UTF_8.decode(line).toString();
+    }
+
+    public static class Match {
+        private final long line;
+        private final String text;
+
+        private Match(long line, String text) {
+            this.line = line;
+            this.text = text;
+        }
+
+        public long getLine() {
+            return this.line;
+        }
+
+        public String getText() {
+            return this.text;
+        }
+    }
+
+    private static class Segment {
+        private final int number;
+        private final long firstLine;
+        private int lineCount = 0;
+        private int size = 0;
+        private int[] index = new int[16];
+        private int indexSize = 0;
+        private volatile byte[] pendingData;
+        private volatile File file;
+
+        private Segment(int number, long firstLine) {
+            this.number = number;
+            this.firstLine = firstLine;
+        }
+
+        private void addIndex(int offset) {
+            if (this.indexSize == this.index.length) {
+                this.index = Arrays.copyOf(this.index, this.index.length * 2);
+            }
+            this.index[this.indexSize++] = offset;
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hauptklasse einer vorgestarteten Minecraft-JVM.
+ * Lädt die eigentliche Hauptklasse vor und wartet über einen lokalen Socket auf die Spielargumente inklusive Anmeldedaten.
+ *
+ * <p>Diese Klasse wird ohne die Bibliotheken des Launchers gestartet und darf daher nur die Java-Standardbibliothek verwenden.
+ */
+public class WarmBootstrap {
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        String secret = args[1];
+        Class<?> mainClass = Class.forName(args[2], false, WarmBootstrap.class.getClassLoader());
+        Method mainMethod = mainClass.getMethod("main", String[].class);
+
+        String[] gameArguments;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(30));
+
+            DataOutputStream outputStream = new DataOutputStream(socket.getOutputStream());
+            outputStream.writeUTF(secret);
+            outputStream.flush();
+
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            gameArguments = new String[inputStream.readInt()];
+            for (int i = 0; i < gameArguments.length; i++) {
+                gameArguments[i] = inputStream.readUTF();
+            }
+        } catch (IOException e) {
+            // Launcher wurde beendet oder hat den vorgestarteten Prozess verworfen
+            System.exit(0);
+            return;
+        }
+
+        mainMethod.invoke(null, (Object) gameArguments);
+    }
+
+}
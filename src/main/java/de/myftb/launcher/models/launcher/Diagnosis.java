@@ -0,0 +1,74 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+/**
+ * In der Ausgabe eines Spiels erkanntes Fehlerbild.
+ */
+public class Diagnosis {
+    private final String signature;
+    private final String severity;
+    private final String title;
+    private final String hint;
+    private final String line;
+    private final long time;
+    private int count = 1;
+
+    public Diagnosis(String signature, String severity, String title, String hint, String line) {
+        this.signature = signature;
+        this.severity = severity;
+        this.title = title;
+        this.hint = hint;
+        this.line = line;
+        this.time = System.currentTimeMillis();
+    }
+
+    public void increment() {
+        this.count++;
+    }
+
+    public String getSignature() {
+        return this.signature;
+    }
+
+    public String getSeverity() {
+        return this.severity;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getHint() {
+        return this.hint;
+    }
+
+    public String getLine() {
+        return this.line;
+    }
+
+    public long getTime() {
+        return this.time;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Zusammenfassung des GC-Logs der letzten Spielsitzung eines Modpacks samt daraus abgeleiteter Empfehlung.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GcSummary {
+    private long timestamp;
+    private int sessions;
+    private long sessionSeconds;
+
+    private long gcCount;
+    private long fullGcCount;
+    private long peakLiveSet;
+    private long heapCapacity;
+    private double allocationRate;
+
+    private double pauseP50;
+    private double pauseP95;
+    private double pauseP99;
+    private double pauseMax;
+    private double pauseTotal;
+
+    private int recommendedMemory;
+    private JvmProfile recommendedProfile;
+
+    public GcSummary() {
+    }
+
+    public GcSummary(long sessionSeconds, long gcCount, long fullGcCount, long peakLiveSet, long heapCapacity, double allocationRate,
+                     double pauseP50, double pauseP95, double pauseP99, double pauseMax, double pauseTotal) {
+        this.timestamp = System.currentTimeMillis();
+        this.sessions = 1;
+        this.sessionSeconds = sessionSeconds;
+        this.gcCount = gcCount;
+        this.fullGcCount = fullGcCount;
+        this.peakLiveSet = peakLiveSet;
+        this.heapCapacity = heapCapacity;
+        this.allocationRate = allocationRate;
+        this.pauseP50 = pauseP50;
+        this.pauseP95 = pauseP95;
+        this.pauseP99 = pauseP99;
+        this.pauseMax = pauseMax;
+        this.pauseTotal = pauseTotal;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public int getSessions() {
+        return this.sessions;
+    }
+
+    public void setSessions(int sessions) {
+        this.sessions = sessions;
+    }
+
+    public long getSessionSeconds() {
+        return this.sessionSeconds;
+    }
+
+    public long getGcCount() {
+        return this.gcCount;
+    }
+
+    public long getFullGcCount() {
+        return this.fullGcCount;
+    }
+
+    /**
+     * Gibt die höchste Heapbelegung nach einer Garbage Collection zurück.
+     *
+     * @return Belegung in MB
+     */
+    public long getPeakLiveSet() {
+        return this.peakLiveSet;
+    }
+
+    public long getHeapCapacity() {
+        return this.heapCapacity;
+    }
+
+    /**
+     * Gibt die durchschnittliche Allokationsrate während der Sitzung zurück.
+     *
+     * @return Allokationsrate in MB/s
+     */
+    public double getAllocationRate() {
+        return this.allocationRate;
+    }
+
+    public double getPauseP50() {
+        return this.pauseP50;
+    }
+
+    public double getPauseP95() {
+        return this.pauseP95;
+    }
+
+    public double getPauseP99() {
+        return this.pauseP99;
+    }
+
+    public double getPauseMax() {
+        return this.pauseMax;
+    }
+
+    public double getPauseTotal() {
+        return this.pauseTotal;
+    }
+
+    public int getRecommendedMemory() {
+        return this.recommendedMemory;
+    }
+
+    public JvmProfile getRecommendedProfile() {
+        return this.recommendedProfile;
+    }
+
+    public void setRecommendation(int recommendedMemory, JvmProfile recommendedProfile) {
+        this.recommendedMemory = recommendedMemory;
+        this.recommendedProfile = recommendedProfile;
+    }
+
+}
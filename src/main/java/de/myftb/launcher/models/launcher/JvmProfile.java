@@ -0,0 +1,182 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Vordefinierte JVM-Einstellungen für gestartete Modpacks.
+ * Heap, GC, Regionsgröße und Threadanzahl werden aus dem Arbeitsspeicher und den Kernen des Systems,
+ * sowie den Anforderungen des Modpacks abgeleitet.
+ */
+public enum JvmProfile {
+    /**
+     * Verhalten vor Einführung der Profile: ausschließlich der konfigurierte minimale und maximale Arbeitsspeicher.
+     */
+    DEFAULT("Standard") {
+        @Override
+        protected int getMaxHeap(int configuredMax, int requiredMemory, long physicalMemory) {
+            return configuredMax;
+        }
+
+        @Override
+        protected int getMinHeap(int configuredMin, int maxHeap) {
+            return Math.min(configuredMin, maxHeap);
+        }
+
+        @Override
+        protected List<String> getGcArguments(int maxHeap, int processors) {
+            return new ArrayList<>();
+        }
+    },
+
+    /**
+     * G1 mit kurzen Pausenzeiten, geeignet für die meisten Modpacks bis etwa 12 GB Heap.
+     */
+    G1_LOW_LATENCY("G1 - niedrige Latenz") {
+        @Override
+        protected int getMaxHeap(int configuredMax, int requiredMemory, long physicalMemory) {
+            return JvmProfile.clampHeap(Math.max(configuredMax, requiredMemory), physicalMemory);
+        }
+
+        @Override
+        protected List<String> getGcArguments(int maxHeap, int processors) {
+            List<String> arguments = JvmProfile.getG1Arguments(maxHeap, processors);
+            arguments.addAll(Arrays.asList(
+                    "-XX:MaxGCPauseMillis=50",
+                    "-XX:G1NewSizePercent=20",
+                    "-XX:G1MaxNewSizePercent=40",
+                    "-XX:G1ReservePercent=20",
+                    "-XX:InitiatingHeapOccupancyPercent=15"
+            ));
+            return arguments;
+        }
+    },
+
+    /**
+     * G1 für sehr große Modpacks, nutzt bei ausreichend Arbeitsspeicher einen größeren Heap und eine größere junge Generation.
+     */
+    G1_LARGE_HEAP("G1 - großer Heap") {
+        @Override
+        protected int getMaxHeap(int configuredMax, int requiredMemory, long physicalMemory) {
+            int preferred = (int) Math.min(physicalMemory * 6 / 10, 16384);
+            return JvmProfile.clampHeap(Math.max(Math.max(configuredMax, requiredMemory), preferred), physicalMemory);
+        }
+
+        @Override
+        protected List<String> getGcArguments(int maxHeap, int processors) {
+            List<String> arguments = JvmProfile.getG1Arguments(maxHeap, processors);
+            arguments.addAll(Arrays.asList(
+                    "-XX:MaxGCPauseMillis=200",
+                    "-XX:G1NewSizePercent=40",
+                    "-XX:G1MaxNewSizePercent=50",
+                    "-XX:G1ReservePercent=15",
+                    "-XX:InitiatingHeapOccupancyPercent=20"
+            ));
+            return arguments;
+        }
+    };
+
+    private static final int lowestHeap = 1024;
+    private static final Pattern gcFlag = Pattern.compile("-XX:[+-]?(Use\\w*GC|G1\\w+|\\w*GCThreads|MaxGCPauseMillis|InitiatingHeapOccupancyPercent)(=.*)?");
+
+    private final String displayName;
+
+    JvmProfile(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    protected abstract int getMaxHeap(int configuredMax, int requiredMemory, long physicalMemory);
+
+    protected int getMinHeap(int configuredMin, int maxHeap) {
+        return maxHeap; // Keine Heapvergrößerungen während des Spielens
+    }
+
+    protected abstract List<String> getGcArguments(int maxHeap, int processors);
+
+    /**
+     * Erzeugt die JVM-Argumente für Heap und Garbage Collector.
+     *
+     * @param configuredMin In den Einstellungen konfigurierter minimaler Arbeitsspeicher in MB
+     * @param configuredMax In den Einstellungen konfigurierter maximaler Arbeitsspeicher in MB
+     * @param requiredMemory Vom Modpack geforderter Arbeitsspeicher in MB, 0 falls keine Anforderung besteht
+     * @param additionalFlags Nachfolgende JVM-Argumente aus dem Manifest des Modpacks und den Einstellungen. Legen diese den Garbage
+     *                        Collector fest, entfallen die GC-Einstellungen des Profils, da sie sich mit einem anderen Collector
+     *                        nicht vertragen.
+     * @return JVM-Argumente
+     */
+    public List<String> getArguments(int configuredMin, int configuredMax, int requiredMemory, List<String> additionalFlags) {
+        int maxHeap = this.getMaxHeap(configuredMax, requiredMemory, Platform.getPhysicalMemory());
+        int minHeap = this.getMinHeap(configuredMin, maxHeap);
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-Xms" + minHeap + "M");
+        arguments.add("-Xmx" + maxHeap + "M");
+        if (additionalFlags.stream().noneMatch(flag -> JvmProfile.gcFlag.matcher(flag).matches())) {
+            arguments.addAll(this.getGcArguments(maxHeap, Platform.getProcessorCount()));
+        }
+        return arguments;
+    }
+
+    /**
+     * Begrenzt die Heapgröße auf den Arbeitsspeicher, welcher neben Betriebssystem und Launcher sinnvoll nutzbar ist.
+     *
+     * @param heap Gewünschte Heapgröße in MB
+     * @param physicalMemory Physikalischer Arbeitsspeicher in MB, 0 falls unbekannt
+     * @return Begrenzte Heapgröße in MB, mindestens 1024
+     */
+    public static int clampHeap(int heap, long physicalMemory) {
+        if (physicalMemory <= 0) {
+            return Math.max(heap, JvmProfile.lowestHeap);
+        }
+
+        // Dem Betriebssystem, Treibern und dem Launcher selbst mindestens 2 GB bzw. ein Viertel des Speichers lassen
+        long available = physicalMemory - Math.max(2048, physicalMemory / 4);
+        return (int) Math.max(JvmProfile.lowestHeap, Math.min(heap, available));
+    }
+
+    private static List<String> getG1Arguments(int maxHeap, int processors) {
+        // G1 zielt auf ca. 2048 Regionen, die Regionsgröße muss eine Zweierpotenz zwischen 1 und 32 MB sein
+        int regionSize = Integer.highestOneBit(Math.max(1, maxHeap / 2048));
+        regionSize = Math.max(1, Math.min(32, regionSize));
+
+        // Ein Kern bleibt für den Render-Thread des Spiels reserviert, Formel nach HotSpot-Vorgabe für mehr als 8 Kerne
+        int availableProcessors = Math.max(1, processors - 1);
+        int parallelThreads = availableProcessors <= 8 ? availableProcessors : 8 + (availableProcessors - 8) * 5 / 8;
+        int concurrentThreads = Math.max(1, (parallelThreads + 2) / 4);
+
+        return new ArrayList<>(Arrays.asList(
+                "-XX:+UseG1GC",
+                "-XX:+UnlockExperimentalVMOptions",
+                "-XX:+ParallelRefProcEnabled",
+                "-XX:+DisableExplicitGC",
+                "-XX:G1HeapRegionSize=" + regionSize + "M",
+                "-XX:ParallelGCThreads=" + parallelThreads,
+                "-XX:ConcGCThreads=" + concurrentThreads
+        ));
+    }
+
+}
@@ -26,7 +26,6 @@ import com.mojang.authlib.AuthenticationService;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.UserAuthentication;
 import com.mojang.authlib.yggdrasil.YggdrasilAuthenticationService;
-import com.sun.management.OperatingSystemMXBean;
 
 import de.myftb.launcher.launch.ManifestHelper;
 import de.myftb.launcher.models.modpacks.ModpackManifest;
@@ -35,7 +34,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.lang.management.ManagementFactory;
 import java.net.Proxy;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -43,6 +41,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -59,6 +58,7 @@ public class LauncherConfig {
 
     @Expose private int maxMemory = LauncherConfig.getDefaultMemory();
     @Expose private int minMemory = Math.max(1024, this.maxMemory / 2);
+    @Expose private Map<String, Integer> packMemory = new HashMap<>();
 
     @Expose private int gameWidth = 854;
     @Expose private int gameHeight = 480;
@@ -69,7 +69,15 @@ public class LauncherConfig {
     @Expose private List<UserAuthentication> profiles = new LinkedList<>();
     @Expose private boolean allowWebstart = true;
     @Expose private List<String> lastPlayedPacks = new LinkedList<>();
+    @Expose private Map<String, Long> lastPlayedTimes = new HashMap<>();
     @Expose private Map<String, String> autoConfigs = new HashMap<>();
+    @Expose private Map<String, JvmProfile> jvmProfiles = new HashMap<>();
+    @Expose private boolean gcLogging = false;
+    @Expose private boolean gcAutoTune = false;
+    @Expose private boolean preSpawn = false;
+    @Expose private String logRateLimits = "*=500";
+    @Expose private int progressUpdateRate = 30;
+    @Expose private int cacheSize = 256;
 
     public String getClientToken() {
         return this.clientToken;
@@ -87,6 +95,22 @@ public class LauncherConfig {
         return this.maxMemory;
     }
 
+    /**
+     * Gibt den maximalen Arbeitsspeicher für ein Modpack zurück.
+     * Wurde über die GC-Auswertung eine eigene Größe für das Modpack übernommen, wird diese verwendet.
+     *
+     * @param pack Name des Modpacks
+     * @return Maximaler Arbeitsspeicher in MB
+     */
+    public int getMaxMemory(String pack) {
+        Integer memory = this.packMemory.get(pack);
+        return memory == null || memory <= 0 ? this.maxMemory : memory;
+    }
+
+    public void setPackMemory(String pack, int memory) {
+        this.packMemory.put(pack, memory);
+    }
+
     public int getGameWidth() {
         return this.gameWidth;
     }
@@ -141,7 +165,11 @@ public class LauncherConfig {
     }
 
     public List<String> getLastPlayedPacks() {
-        List<String> installed = ManifestHelper.getInstalledModpacks().stream().map(ModpackManifest::getName).collect(Collectors.toList());
+        return this.getLastPlayedPacks(ManifestHelper.getInstalledModpacks());
+    }
+
+    public List<String> getLastPlayedPacks(List<ModpackManifest> installedPacks) {
+        Set<String> installed = installedPacks.stream().map(ModpackManifest::getName).collect(Collectors.toSet());
         this.lastPlayedPacks.removeIf(pack -> !installed.contains(pack));
 
         return this.lastPlayedPacks;
@@ -151,16 +179,61 @@ public class LauncherConfig {
         this.lastPlayedPacks = new LinkedList<>(this.lastPlayedPacks);
         this.lastPlayedPacks.removeIf(str -> str.equals(name));
         ((LinkedList<String>) this.lastPlayedPacks).addFirst(name);
+        this.lastPlayedTimes.put(name, System.currentTimeMillis());
 
         if (this.lastPlayedPacks.size() > 3) {
             ((LinkedList<String>) this.lastPlayedPacks).removeLast();
         }
     }
 
+    public long getLastPlayedTime(String name) {
+        return this.lastPlayedTimes.getOrDefault(name, 0L);
+    }
+
     public Map<String, String> getAutoConfigs() {
         return this.autoConfigs;
     }
 
+    public JvmProfile getJvmProfile(String pack) {
+        JvmProfile profile = this.jvmProfiles.get(pack);
+        return profile == null ? JvmProfile.DEFAULT : profile; // Unbekannte Profile werden von Gson als null gelesen
+    }
+
+    public void setJvmProfile(String pack, JvmProfile profile) {
+        if (profile == JvmProfile.DEFAULT) {
+            this.jvmProfiles.remove(pack);
+        } else {
+            this.jvmProfiles.put(pack, profile);
+        }
+    }
+
+    public boolean isGcLogging() {
+        return this.gcLogging;
+    }
+
+    public boolean isGcAutoTune() {
+        return this.gcAutoTune;
+    }
+
+    public boolean isPreSpawn() {
+        return this.preSpawn;
+    }
+
+    public String getLogRateLimits() {
+        return this.logRateLimits;
+    }
+
+    public int getProgressUpdateRate() {
+        return this.progressUpdateRate;
+    }
+
+    /**
+     * @return Obergrenze des Cacheverzeichnisses in MiB
+     */
+    public int getCacheSize() {
+        return this.cacheSize;
+    }
+
     public AuthenticationService getAuthenticationService() {
         return new YggdrasilAuthenticationService(Proxy.NO_PROXY, this.getClientToken());
     }
@@ -194,17 +267,13 @@ public class LauncherConfig {
     }
 
     private static int getDefaultMemory() {
-        try {
-            long memorySize = ((OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getTotalPhysicalMemorySize() / 1048576;
-            if (memorySize >= 16000) {
-                return 8192;
-            } else if (memorySize >= 12000) {
-                return 6144;
-            } else if (memorySize >= 8000) {
-                return 4096;
-            }
-        } catch (Exception e) {
-            // ignore
+        long memorySize = Platform.getPhysicalMemory();
+        if (memorySize >= 16000) {
+            return 8192;
+        } else if (memorySize >= 12000) {
+            return 6144;
+        } else if (memorySize >= 8000) {
+            return 4096;
         }
 
         return 1024;
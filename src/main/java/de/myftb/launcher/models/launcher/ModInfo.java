@@ -0,0 +1,79 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Metadaten eines Mods aus {@code mcmod.info}, {@code META-INF/mods.toml} bzw. {@code fabric.mod.json}.
+ */
+public class ModInfo {
+    private final String id;
+    private final String name;
+    private final String version;
+    private final String loader;
+    private final List<String> dependencies;
+    private final String file;
+
+    public ModInfo(String id, String name, String version, String loader, List<String> dependencies, String file) {
+        this.id = id;
+        this.name = name;
+        this.version = version;
+        this.loader = loader;
+        this.dependencies = dependencies;
+        this.file = file;
+    }
+
+    public ModInfo withFile(String file) {
+        return new ModInfo(this.id, this.name, this.version, this.loader, this.dependencies, file);
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getLoader() {
+        return this.loader;
+    }
+
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    public String getFile() {
+        return this.file;
+    }
+
+    public boolean matches(String query) {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        return (this.id != null && this.id.toLowerCase(Locale.ROOT).contains(lowerQuery))
+                || (this.name != null && this.name.toLowerCase(Locale.ROOT).contains(lowerQuery))
+                || (this.file != null && this.file.toLowerCase(Locale.ROOT).contains(lowerQuery));
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+import de.myftb.launcher.models.modpacks.ModpackManifest;
+
+/**
+ * Schlanke Darstellung eines installierten Modpacks für Paketlisten in der UI, das vollständige Manifest wird nur bei Bedarf übertragen.
+ */
+public class PackSummary {
+    private final String name;
+    private final String title;
+    private final String version;
+    private final String gameVersion;
+    private final long size;
+    private final long lastPlayed;
+
+    public PackSummary(ModpackManifest manifest, long size, long lastPlayed) {
+        this.name = manifest.getName();
+        this.title = manifest.getTitle();
+        this.version = manifest.getVersion();
+        this.gameVersion = manifest.getGameVersion();
+        this.size = size;
+        this.lastPlayed = lastPlayed;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getGameVersion() {
+        return this.gameVersion;
+    }
+
+    /**
+     * Zuletzt ermittelter Speicherbedarf der Instanz in Bytes, -1 solange dieser noch nicht berechnet wurde.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    public long getLastPlayed() {
+        return this.lastPlayed;
+    }
+
+}
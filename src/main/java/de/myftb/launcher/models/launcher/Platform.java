@@ -18,6 +18,10 @@
 
 package de.myftb.launcher.models.launcher;
 
+import com.sun.management.OperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+
 public enum Platform {
     WINDOWS,
     OSX,
@@ -40,4 +44,21 @@ public enum Platform {
         return UNKNOWN;
     }
 
+    /**
+     * Gibt den physikalisch verbauten Arbeitsspeicher in MB zurück.
+     *
+     * @return Arbeitsspeicher in MB oder 0, falls dieser nicht ermittelt werden kann
+     */
+    public static long getPhysicalMemory() {
+        try {
+            return ((OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getTotalPhysicalMemorySize() / 1048576;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    public static int getProcessorCount() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
 }
\ No newline at end of file
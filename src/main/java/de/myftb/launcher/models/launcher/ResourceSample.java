@@ -0,0 +1,66 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+/**
+ * Messwert der Ressourcennutzung eines Spiels samt Kindprozessen.
+ * Nicht verfügbare Werte sind -1.
+ */
+public class ResourceSample {
+    private final long timestamp;
+    private final double cpu; // Prozent, 100 entspricht einem ausgelasteten Kern
+    private final long rss;
+    private final int threads;
+    private final double readRate; // Bytes/s
+    private final double writeRate; // Bytes/s
+
+    public ResourceSample(long timestamp, double cpu, long rss, int threads, double readRate, double writeRate) {
+        this.timestamp = timestamp;
+        this.cpu = cpu;
+        this.rss = rss;
+        this.threads = threads;
+        this.readRate = readRate;
+        this.writeRate = writeRate;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public double getCpu() {
+        return this.cpu;
+    }
+
+    public long getRss() {
+        return this.rss;
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    public double getReadRate() {
+        return this.readRate;
+    }
+
+    public double getWriteRate() {
+        return this.writeRate;
+    }
+
+}
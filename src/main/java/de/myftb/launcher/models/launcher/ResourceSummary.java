@@ -0,0 +1,103 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.models.launcher;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Zusammenfassung der Ressourcennutzung einer Spielsitzung, um Modpacks miteinander vergleichen zu können.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ResourceSummary {
+    private String pack;
+    private long startTime;
+    private long sessionSeconds;
+    private int samples;
+
+    private double cpuAverage;
+    private double cpuMax;
+    private long rssAverage;
+    private long rssMax;
+    private int threadsMax;
+    private long bytesRead;
+    private long bytesWritten;
+
+    public ResourceSummary() {
+    }
+
+    public ResourceSummary(String pack, long startTime, long sessionSeconds, int samples, double cpuAverage, double cpuMax, long rssAverage,
+                           long rssMax, int threadsMax, long bytesRead, long bytesWritten) {
+        this.pack = pack;
+        this.startTime = startTime;
+        this.sessionSeconds = sessionSeconds;
+        this.samples = samples;
+        this.cpuAverage = cpuAverage;
+        this.cpuMax = cpuMax;
+        this.rssAverage = rssAverage;
+        this.rssMax = rssMax;
+        this.threadsMax = threadsMax;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public String getPack() {
+        return this.pack;
+    }
+
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    public long getSessionSeconds() {
+        return this.sessionSeconds;
+    }
+
+    public int getSamples() {
+        return this.samples;
+    }
+
+    public double getCpuAverage() {
+        return this.cpuAverage;
+    }
+
+    public double getCpuMax() {
+        return this.cpuMax;
+    }
+
+    public long getRssAverage() {
+        return this.rssAverage;
+    }
+
+    public long getRssMax() {
+        return this.rssMax;
+    }
+
+    public int getThreadsMax() {
+        return this.threadsMax;
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+}
@@ -20,21 +20,14 @@ package de.myftb.launcher.models.modpacks;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
-import com.google.common.io.Files;
-
-import de.myftb.launcher.HttpRequest;
 import de.myftb.launcher.Launcher;
+import de.myftb.launcher.cache.ModpackImageCache;
 import de.myftb.launcher.models.minecraft.MinecraftVersionManifest;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-import javax.imageio.ImageIO;
-
-import net.sf.image4j.codec.ico.ICOEncoder;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ModpackManifest {
@@ -72,6 +65,23 @@ public class ModpackManifest {
         return this.launch;
     }
 
+    /**
+     * Gibt den vom Modpack unter {@code launch.memory} geforderten Arbeitsspeicher zurück.
+     *
+     * @return Arbeitsspeicher in MB, 0 falls das Modpack keine Anforderung angibt
+     */
+    public int getRequiredMemory() {
+        if (this.launch == null || this.launch.get("memory") == null || this.launch.get("memory").isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return Integer.parseInt(this.launch.get("memory").get(0).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     public List<Feature> getFeatures() {
         return this.features;
     }
@@ -86,33 +96,11 @@ public class ModpackManifest {
         return instanceDir;
     }
 
+    /**
+     * Speichert das Logo des Modpacks, bei {@code .ico}-Dateien mit mehreren Auflösungen für Windows-Verknüpfungen.
+     */
     public boolean saveModpackLogo(File target) throws IOException {
-        Optional<String> imageLocation = Launcher.getInstance().getRemotePacks().getPackByName(this.name)
-                .map(ModpackManifestList.ModpackManifestReference::getLocation)
-                .map(location -> location.substring(0, location.lastIndexOf('.')) + ".png");
-
-        if (!imageLocation.isPresent()) {
-            return false;
-        }
-
-        if (!target.isFile() || (System.currentTimeMillis() - target.lastModified()) >= TimeUnit.DAYS.toMillis(3)) {
-            File icoTarget = null;
-
-            if (target.getName().endsWith(".ico")) {
-                icoTarget = target;
-                target = new File(target.getParentFile(), Files.getNameWithoutExtension(target.getName()) + ".png");
-            }
-
-            HttpRequest.get("https://launcher.myftb.de/images/" + imageLocation.get())
-                    .execute()
-                    .saveContent(target);
-
-            if (icoTarget != null) {
-                ICOEncoder.write(ImageIO.read(target), 32, icoTarget);
-            }
-        }
-
-        return true;
+        return ModpackImageCache.saveImage(this.name, 256, target);
     }
 
-}
\ No newline at end of file
+}
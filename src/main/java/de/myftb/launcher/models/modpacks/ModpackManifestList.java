@@ -76,7 +76,7 @@ public class ModpackManifestList {
         public JsonObject getWebstart() throws JsonProcessingException {
             JsonObject jsonObject = new JsonObject();
             jsonObject.addProperty("pack", LaunchHelper.mapper.writeValueAsString(this));
-            jsonObject.addProperty("install", ManifestHelper.getInstalledModpacks().stream().noneMatch(pack -> pack.getName().equals(this.name)));
+            jsonObject.addProperty("install", !ManifestHelper.getInstalledModpack(this.name).isPresent());
             return jsonObject;
         }
     }
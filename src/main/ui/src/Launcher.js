@@ -36,12 +36,14 @@ class Launcher extends React.Component {
         super(props);
         this.state = {
             loading: true, loginForm: false, loginFormPrefill: false, newProfile: true, loginDisabled: true, loginError: '',
-            profiles: false, dialog: false, dialogCloseable: false, loginListeners: [], modpackRunning: false,
+            profiles: false, dialog: false, dialogCloseable: false, loginListeners: [], instances: [], instanceListeners: [],
             featureMessage: false, featureCallback: false, installationStatus: false,
             welcomeMessage: false
         };
         
         window.launcher = this;
+        this.bootstrap = false;
+        this.bootstrapWaiting = [];
 
         this.handleLoginInput = this.handleLoginInput.bind(this);
         this.handleLogin = this.handleLogin.bind(this);
@@ -65,6 +67,29 @@ class Launcher extends React.Component {
             }
         });
 
+        this.listenIpc('update_instances', (err, data) => {
+            if (!err) {
+                this.setState({instances: data.instances});
+                this.state.instanceListeners.forEach(comp => comp.onUpdateInstances(data.instances));
+            }
+        });
+
+        this.listenIpc('game_diagnosis', (err, data) => {
+            if (!err && data.diagnosis.severity === 'error') {
+                this.showDialog(true, [
+                    <h3>{data.title}: {data.diagnosis.title}</h3>,
+                    <p>{data.diagnosis.hint}</p>,
+                    <p className="diagnosis-line">{data.diagnosis.line}</p>
+                ]);
+            }
+        });
+
+        this.listenIpc('prespawn_discarded', (err, data) => {
+            if (!err && this.prespawnedPack === data.modpack) {
+                this.prespawnedPack = false;
+            }
+        });
+
         this.listenIpc('show_login_form', (err, data) => {
             this.showLoginForm(data.username, data.new_profile);
         });
@@ -101,13 +126,18 @@ class Launcher extends React.Component {
             ]);
         });
 
-        this.sendIpc('renderer_arrived', false, (err, data) => {
-            if (err) {
-                throw err;
+        this.sendIpc('bootstrap', false, (err, data) => {
+            this.bootstrap = err ? false : {parts: data, errors: data.errors, received: Date.now()};
+            let waiting = this.bootstrapWaiting;
+            this.bootstrapWaiting = false;
+            waiting.forEach(request => request());
+
+            if (err || data.errors.renderer) {
+                throw err || data.errors.renderer;
             }
             this.loading(false);
-            if (data.login_needed) {
-                this.showLoginForm(data.login_username, data.new_profile);
+            if (data.renderer.login_needed) {
+                this.showLoginForm(data.renderer.login_username, data.renderer.new_profile);
             }
         });
     }
@@ -127,7 +157,7 @@ class Launcher extends React.Component {
     }
 
     cancelDownload() {
-        this.sendIpc('cancel_download', {});
+        this.sendIpc('cancel_download', {pack: this.state.installationStatus ? this.state.installationStatus.pack.name : undefined});
     }
 
     /* ============================================================ Dialog ============================================================ */
@@ -160,6 +190,17 @@ class Launcher extends React.Component {
         this.setState({ loginListeners: this.state.loginListeners.filter(value => value !== comp) });
     }
 
+    /* ============================================================ Instance Rerender ============================================================ */
+
+    registerUpdateInstancesRerender(comp) {
+        this.setState(prevState => { return {instanceListeners: prevState.instanceListeners.concat([comp])} });
+        comp.onUpdateInstances(this.state.instances);
+    }
+
+    unregisterUpdateInstancesRerender(comp) {
+        this.setState({ instanceListeners: this.state.instanceListeners.filter(value => value !== comp) });
+    }
+
     /* ============================================================ IPC ============================================================ */
 
     sendIpc(topic, data, cb) {
@@ -171,7 +212,35 @@ class Launcher extends React.Component {
             request.onSuccess = data => cb(false, JSON.parse(data));
             request.onFailure = (code, message) => cb(message);
         }
-        window.ipcQuery(request);
+        return window.ipcQuery(request);
+    }
+
+    cancelIpc(queryId) {
+        if (queryId) {
+            window.cancelIpcQuery(queryId);
+        }
+    }
+
+    /**
+     * Wie sendIpc, nutzt aber einmalig die beim Start per bootstrap geladenen Daten, sofern diese noch frisch sind.
+     */
+    sendIpcBootstrapped(part, topic, data, cb) {
+        if (this.bootstrapWaiting) {
+            this.bootstrapWaiting.push(() => this.sendIpcBootstrapped(part, topic, data, cb));
+            return;
+        }
+
+        let bootstrap = this.bootstrap;
+        if (bootstrap && Date.now() - bootstrap.received < 30000 && (part in bootstrap.parts || part in bootstrap.errors)) {
+            let result = bootstrap.parts[part];
+            let error = bootstrap.errors[part];
+            delete bootstrap.parts[part];
+            delete bootstrap.errors[part];
+            cb(error || false, result);
+            return;
+        }
+
+        return this.sendIpc(topic, data, cb);
     }
 
     listenIpc(topic, cb) {
@@ -275,20 +344,34 @@ class Launcher extends React.Component {
 
     launchModpack(modpack) {
         this.loading(true);
+        clearTimeout(this.prespawnTimeout);
+        this.prespawnedPack = false;
 
         this.sendIpc('launch_modpack', {modpack: modpack.name}, this.generalFeatureCallback('launch_modpack', data => {
             if (data.installing) {
                 this.setState({installationStatus: {progress: data.installing, pack: modpack.title}});
             } else if (data.installed) {
                 this.setState({installationStatus: false});
-            } else if (data.launching) {
-                this.setState({modpackRunning: true});
-            } else if (data.closed) {
-                this.setState({modpackRunning: false});
             }
         }));
     }
 
+    prespawnModpack(modpack) {
+        if (this.state.instances.some(instance => instance.id === modpack.name && instance.state !== 'exited') || this.prespawnedPack === modpack.name) {
+            return;
+        }
+
+        clearTimeout(this.prespawnTimeout);
+        this.prespawnTimeout = setTimeout(() => {
+            this.prespawnedPack = modpack.name;
+            this.sendIpc('prespawn_modpack', {modpack: modpack.name}, (err, data) => {
+                if ((err || !data.prespawned) && this.prespawnedPack === modpack.name) {
+                    this.prespawnedPack = false;
+                }
+            });
+        }, 500);
+    }
+
     static getDerivedStateFromProps(props, state) {
         state.consoleOpen = props.history.location.pathname === '/console';
         return state;
@@ -346,7 +429,7 @@ class Launcher extends React.Component {
                     <a href="#" title="Log hochladen" onClick={this.uploadLog}><FontAwesomeIcon icon="upload"/></a>
                 </div>
 
-                <div className={'console-breakout' + (this.state.modpackRunning && this.state.consoleOpen ? ' active': '')} style={{bottom: '81px'}}>
+                <div className={'console-breakout' + (this.state.instances.some(instance => instance.watched && instance.state !== 'exited') && this.state.consoleOpen ? ' active': '')} style={{bottom: '81px'}}>
                     <a href="#" title="Minecraft töten" onClick={this.killMinecraft}><FontAwesomeIcon icon="skull"/></a>
                 </div>
 
@@ -36,7 +36,7 @@ export default class AvailablePacks extends React.Component {
 
     componentDidMount() {
         window.launcher.loading(true);
-        window.launcher.sendIpc('request_installable_modpacks', false, (err, data) => {
+        window.launcher.sendIpcBootstrapped('installable', 'request_installable_modpacks', false, (err, data) => {
             window.launcher.loading(false);
             if (err) {
                 return window.launcher.showDialog(true, <p>{err}</p>);
@@ -25,12 +25,135 @@ export default class Console extends React.Component {
 
     constructor(props) {
         super(props);
+        this.state = {instances: [], sample: false, matches: false, page: false};
+        this.onSelectInstance = this.onSelectInstance.bind(this);
+        this.onSearchKeyDown = this.onSearchKeyDown.bind(this);
+        this.closeSearch = this.closeSearch.bind(this);
+    }
+
+    componentDidMount() {
+        window.launcher.registerUpdateInstancesRerender(this);
+        window.launcher.listenIpc('resource_sample', (err, data) => {
+            let watched = this.state.instances.find(instance => instance.watched);
+            if (!err && watched && watched.id === data.instance) {
+                this.setState({sample: data.sample});
+            }
+        });
+        window.launcher.sendIpc('request_resource_samples', false, (err, data) => {
+            if (!err && data.samples.length > 0) {
+                this.setState({sample: data.samples[data.samples.length - 1]});
+            }
+        });
+    }
+
+    componentWillUnmount() {
+        window.launcher.unregisterUpdateInstancesRerender(this);
+        window.launcher.unregisterIpc('resource_sample');
+        window.launcher.cancelIpc(this.searchQuery);
+    }
+
+    onUpdateInstances(instances) {
+        this.setState({instances: instances});
+    }
+
+    static formatBytes(bytes) {
+        return bytes >= 1073741824 ? (bytes / 1073741824).toFixed(1) + ' GB' : Math.round(bytes / 1048576) + ' MB';
+    }
+
+    onSelectInstance(e) {
+        this.setState({sample: false});
+        window.launcher.sendIpc('request_console', {instance: e.target.value});
+    }
+
+    onSearchKeyDown(e) {
+        if (e.key !== 'Enter') {
+            return;
+        }
+
+        if (e.target.value.trim().length === 0) {
+            return this.closeSearch();
+        }
+
+        window.launcher.cancelIpc(this.searchQuery);
+        this.searchQuery = window.launcher.sendIpc('search_log', {query: e.target.value.trim()}, (err, data) => {
+            if (err) {
+                return window.launcher.showDialog(true, <p>{err}</p>);
+            }
+            this.setState({matches: data.matches, page: false});
+        });
+    }
+
+    showPage(from) {
+        window.launcher.sendIpc('request_log_page', {from: Math.max(0, from), count: 100}, (err, data) => {
+            if (err) {
+                return window.launcher.showDialog(true, <p>{err}</p>);
+            }
+            this.setState({page: data});
+        });
+    }
+
+    closeSearch() {
+        this.setState({matches: false, page: false});
+    }
+
+    renderSearch() {
+        if (this.state.page) {
+            return (
+                <div className="console-search">
+                    <div className="console-search-actions">
+                        <button className="btn" disabled={this.state.page.from === 0} onClick={() => this.showPage(this.state.page.from - 100)}>Zurück</button>
+                        <button className="btn" disabled={this.state.page.from + this.state.page.lines.length >= this.state.page.total} onClick={() => this.showPage(this.state.page.from + 100)}>Weiter</button>
+                        <button className="btn" onClick={() => this.setState({page: false})}>Schließen</button>
+                    </div>
+                    {this.state.page.lines.map((line, i) => (
+                        <div key={i} className="console-search-line"><span>{this.state.page.from + i + 1}</span>{line}</div>
+                    ))}
+                </div>
+            )
+        }
+
+        return (
+            <div className="console-search">
+                <div className="console-search-actions">
+                    <button className="btn" onClick={this.closeSearch}>Schließen</button>
+                </div>
+                {this.state.matches.length === 0 && <p>Keine Treffer</p>}
+                {this.state.matches.map(match => (
+                    <div key={match.line} className="console-search-line" onClick={() => this.showPage(match.line - 50)}><span>{match.line + 1}</span>{match.text}</div>
+                ))}
+            </div>
+        )
     }
 
     render() {
+        let watched = this.state.instances.find(instance => instance.watched);
         return (
-            <div className="fullheight">
+            <div className="fullheight console">
+                {this.state.instances.length > 1 && (
+                    <select className="console-instances" value={watched ? watched.id : ''} onChange={this.onSelectInstance}>
+                        {this.state.instances.map(instance => (
+                            <option key={instance.id} value={instance.id}>{instance.title + (instance.state === 'exited' ? ' (beendet)' : '')}</option>
+                        ))}
+                    </select>
+                )}
+                {this.state.sample && watched && watched.state !== 'exited' && (
+                    <div className="console-stats">
+                        CPU {Math.round(this.state.sample.cpu)} % · RAM {Console.formatBytes(this.state.sample.rss)}
+                        {this.state.sample.threads >= 0 && (' · ' + this.state.sample.threads + ' Threads')}
+                        {watched.dropped_lines > 0 && (' · ' + watched.dropped_lines + ' Zeilen (' + Console.formatBytes(watched.dropped_bytes) + ') verworfen')}
+                        {this.state.sample.readRate >= 0 && (' · I/O ' + Console.formatBytes(this.state.sample.readRate) + '/s gelesen, '
+                            + Console.formatBytes(this.state.sample.writeRate) + '/s geschrieben')}
+                    </div>
+                )}
+                {watched && watched.diagnoses.map(diagnosis => (
+                    <div key={diagnosis.signature} className={'console-diagnosis ' + diagnosis.severity} title={diagnosis.hint}>
+                        {diagnosis.title}{diagnosis.count > 1 && (' (' + diagnosis.count + '×)')}
+                    </div>
+                ))}
+                <input type="text" className="console-search-input" placeholder="Vollständiges Log durchsuchen" spellCheck="false" onKeyDown={this.onSearchKeyDown}></input>
+                {(this.state.matches || this.state.page) && this.renderSearch()}
                 <ScrollFollow
+                    key={watched ? watched.id : 'none'}
                     startFollowing
                     render={({ onScroll, follow, startFollowing, stopFollowing }) => (
                         <ConsoleLog url='no' stream onScroll={onScroll} follow={follow} lineClassName="console-line" highlightLineClassName="highlighted" selectableLines={true} />
@@ -41,4 +164,3 @@ export default class Console extends React.Component {
     }
 
 }
-
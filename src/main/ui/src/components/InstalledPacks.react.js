@@ -37,21 +37,35 @@ export default class InstalledPacks extends React.Component {
         window.installed_packs = this;
 
         window.launcher.loading(true);
-        window.launcher.sendIpc('request_installed_modpacks', false, (err, data) => {
+        this.requestPage([], 0);
+    }
+
+    requestPage(packs, offset) {
+        let request = offset === 0 ? window.launcher.sendIpcBootstrapped.bind(window.launcher, 'installed') : window.launcher.sendIpc.bind(window.launcher);
+        this.pageQuery = request('request_installed_modpacks', {offset: offset}, (err, data) => {
             window.launcher.loading(false);
             if (err) {
                 return window.launcher.showDialog(true, <p>{err}</p>);
             }
-            let packs = JSON.parse(data.packages);
+            if (window.installed_packs !== this) {
+                return;
+            }
+
+            packs = packs.concat(data.packages);
             this.setState({
-                packages: packs.sort((a, b) => a.title.localeCompare(b.title)), 
+                packages: packs,
                 versions: packs.map(pack => pack.gameVersion).filter(PackSearch.distinct).sort()
             });
+
+            if (packs.length < data.total && data.packages.length > 0) {
+                this.requestPage(packs, packs.length);
+            }
         });
     }
 
     componentWillUnmount() {
         window.installed_packs = null;
+        window.launcher.cancelIpc(this.pageQuery);
     }
 
     onModpackClick(pack) {
@@ -31,11 +31,11 @@ export default class Main extends React.Component {
     componentDidMount() {
         window.launcher.registerUpdateProfilesRerender(this);
 
-        window.launcher.sendIpc('request_recent_packs', false, (err, data) => {
+        window.launcher.sendIpcBootstrapped('recent', 'request_recent_packs', false, (err, data) => {
             if (err) {
                 return window.launcher.showDialog(true, <p>{err}</p>);
             }
-            this.setState({ packages: JSON.parse(data.packages) });
+            this.setState({ packages: data.packages });
         });
     }
 
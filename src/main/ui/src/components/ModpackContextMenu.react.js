@@ -48,11 +48,37 @@ export default class ModpackContextMenu extends React.Component {
         }));
     }
 
+    selectJvmProfile() {
+        let pack = window.contextmenu_modpack.props.pack;
+        window.launcher.sendIpc('request_jvm_profiles', {pack: pack.name}, (err, data) => {
+            if (err) {
+                return window.launcher.showDialog(true, <p>{err}</p>);
+            }
+
+            window.launcher.showDialog(true, [
+                <h3>JVM-Profil für {pack.title}</h3>,
+                <p>Das Profil legt Arbeitsspeicher und Garbage Collector anhand deines Systems und der Anforderungen des Modpacks fest.</p>,
+                ...data.profiles.map(profile => (
+                    <button className="btn" disabled={profile.id === data.selected} onClick={() => {
+                        window.launcher.resetDialog();
+                        window.launcher.sendIpc('set_jvm_profile', {pack: pack.name, profile: profile.id}, err => {
+                            if (err) {
+                                window.launcher.showDialog(true, <p>{err}</p>);
+                            }
+                        });
+                    }}>{profile.name}</button>
+                ))
+            ]);
+        });
+    }
+
     onEntryClick(index) {
         if (index === 0) {
             window.contextmenu_modpack.props.onClick();
         } else if (index === 3) {
             this.installPack();
+        } else if (index === 6) {
+            this.selectJvmProfile();
         } else {
             window.launcher.loading(true);
             window.launcher.sendIpc('modpack_menu_click', {pack: window.contextmenu_modpack.props.pack.name, index: index}, (err, data) => {
@@ -75,6 +101,7 @@ export default class ModpackContextMenu extends React.Component {
                     <li onClick={this.onEntryClick.bind(this, 3)}>Modpack aktualisieren</li>
                     <li onClick={this.onEntryClick.bind(this, 4)}>Crashreport hochladen</li>
                     <li onClick={this.onEntryClick.bind(this, 5)}>Desktop-Verknüpfung anlegen</li>
+                    <li onClick={this.onEntryClick.bind(this, 6)}>JVM-Profil wählen</li>
                 </ul>
             </div>
         )
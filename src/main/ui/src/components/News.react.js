@@ -29,7 +29,7 @@ export default class News extends React.Component {
 
     componentDidMount() {
         window.launcher.loading(true);
-        window.launcher.sendIpc('request_posts', false, (err, data) => {
+        window.launcher.sendIpcBootstrapped('posts', 'request_posts', false, (err, data) => {
             window.launcher.loading(false);
             if (err) {
                 return window.launcher.showDialog(true, <p>{err}</p>);
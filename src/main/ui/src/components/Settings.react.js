@@ -27,7 +27,7 @@ export default class Settings extends React.Component {
     constructor(props) {
         super(props);
         this.state = {
-            minMemory: 0, maxMemory: 0, gameWidth: 0, gameHeight: 0, jvmArgs: '', packKey: '', installationDir: '', metricsEnabled: false, allowWebstart: false, loaded: false, 
+            minMemory: 0, maxMemory: 0, gameWidth: 0, gameHeight: 0, jvmArgs: '', packKey: '', installationDir: '', metricsEnabled: false, allowWebstart: false, gcLogging: false, gcAutoTune: false, preSpawn: false, logRateLimits: '', progressUpdateRate: 0, cacheSize: 0, loaded: false, 
             autoConfigOptions: {configs:[], types: [], constraints: []}
         };
         this.doInstallDirSelection = this.doInstallDirSelection.bind(this);
@@ -37,7 +37,7 @@ export default class Settings extends React.Component {
     }
 
     componentDidMount() {
-        window.launcher.sendIpc('request_settings', false, (err, data) => {
+        window.launcher.sendIpcBootstrapped('settings', 'request_settings', false, (err, data) => {
             for (let key in data) {
                 if (!(key in this.state)) {
                     delete data[key];
@@ -128,6 +128,18 @@ export default class Settings extends React.Component {
                     <p>Höhe des Spielfensters in Pixel</p>
                     <RangeInput {...this.getOptionAttributes('gameHeight')} min="480" max="2160"></RangeInput>
                 </div>
+                <div className="form-group">
+                    <p>Konsolenlimit in Zeilen pro Sekunde je Logger (z.B. *=500, minecraft/DedicatedServer=50)</p>
+                    <input {...this.getOptionAttributes('logRateLimits')} type="text" spellCheck="false"></input>
+                </div>
+                <div className="form-group">
+                    <p>Aktualisierungen der Installationsanzeige pro Sekunde</p>
+                    <RangeInput {...this.getOptionAttributes('progressUpdateRate')} min="1" max="60"></RangeInput>
+                </div>
+                <div className="form-group">
+                    <p>Maximale Größe des Caches in MiB</p>
+                    <RangeInput {...this.getOptionAttributes('cacheSize')} min="32" max="2048"></RangeInput>
+                </div>
                 <div className="form-group">
                     <p>Modpackschlüssel</p>
                     <input {...this.getOptionAttributes('packKey')} type="text" spellCheck="false"></input>
@@ -141,6 +153,18 @@ export default class Settings extends React.Component {
                     <p>Webstart aktivieren</p>
                     <ToggleSwitch {...this.getOptionAttributes('allowWebstart')} defaultChecked={this.state.allowWebstart}></ToggleSwitch>
                 </div>
+                <div className="form-group">
+                    <p>GC-Log der Modpacks auswerten</p>
+                    <ToggleSwitch {...this.getOptionAttributes('gcLogging')} defaultChecked={this.state.gcLogging}></ToggleSwitch>
+                </div>
+                <div className="form-group">
+                    <p>Arbeitsspeicher-Empfehlung automatisch übernehmen</p>
+                    <ToggleSwitch {...this.getOptionAttributes('gcAutoTune')} defaultChecked={this.state.gcAutoTune}></ToggleSwitch>
+                </div>
+                <div className="form-group">
+                    <p>Minecraft beim Auswählen eines Modpacks vorstarten</p>
+                    <ToggleSwitch {...this.getOptionAttributes('preSpawn')} defaultChecked={this.state.preSpawn}></ToggleSwitch>
+                </div>
             </div>
         )
     }
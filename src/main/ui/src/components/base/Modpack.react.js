@@ -25,6 +25,7 @@ export default class Modpack extends React.Component {
     constructor(props) {
         super(props)
         this.onContextMenu = this.onContextMenu.bind(this);
+        this.onMouseEnter = this.onMouseEnter.bind(this);
     }
 
     componentWillUnmount() {
@@ -58,14 +59,20 @@ export default class Modpack extends React.Component {
         }
     }
 
+    onMouseEnter() {
+        if (this.props.packinstalled) {
+            window.launcher.prespawnModpack(this.props.pack);
+        }
+    }
+
     onImageError(e) {
         e.target.src = placeholder;
     }
 
     render() {
         return (
-            <div className="pack" {...this.props} onContextMenu={this.onContextMenu}>
-                <img src={'modpackimage://launcher/' + encodeURI(this.props.pack.name)} onError={this.onImageError}></img>
+            <div className="pack" {...this.props} onContextMenu={this.onContextMenu} onMouseEnter={this.onMouseEnter}>
+                <img src={'modpackimage://launcher/' + encodeURI(this.props.pack.name) + '?size=256'} onError={this.onImageError}></img>
                 <div className="blackout"></div>
                 <p><b>{this.props.pack.title}</b></p>
             </div>
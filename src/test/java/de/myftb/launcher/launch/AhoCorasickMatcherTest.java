@@ -0,0 +1,76 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AhoCorasickMatcherTest {
+
+    private static List<Integer> search(AhoCorasickMatcher matcher, String text) {
+        List<Integer> matches = new ArrayList<>();
+        matcher.search(text, matches::add);
+        return matches;
+    }
+
+    @Test
+    public void findsAllPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("OutOfMemoryError", "Exception", "Error"));
+        assertEquals(Arrays.asList(0, 2), AhoCorasickMatcherTest.search(matcher, "java.lang.OutOfMemoryError: Java heap space"));
+        assertEquals(Collections.singletonList(1), AhoCorasickMatcherTest.search(matcher, "java.io.IOException: Broken pipe"));
+    }
+
+    @Test
+    public void findsOverlappingPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("he", "she", "his", "hers"));
+        assertEquals(Arrays.asList(1, 0, 3), AhoCorasickMatcherTest.search(matcher, "ushers"));
+    }
+
+    @Test
+    public void reportsEveryOccurrence() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.singletonList("aa"));
+        assertEquals(Arrays.asList(0, 0, 0), AhoCorasickMatcherTest.search(matcher, "aaaa"));
+    }
+
+    @Test
+    public void ignoresUnknownAndNonAsciiCharacters() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.singletonList("abc"));
+        assertTrue(AhoCorasickMatcherTest.search(matcher, "xyz äöü ab_c").isEmpty());
+        assertEquals(Collections.singletonList(0), AhoCorasickMatcherTest.search(matcher, "ä abc ü"));
+    }
+
+    @Test
+    public void matchesNothingWithoutPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.emptyList());
+        assertTrue(AhoCorasickMatcherTest.search(matcher, "anything").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonAsciiPatterns() {
+        new AhoCorasickMatcher(Collections.singletonList("Größe"));
+    }
+
+}
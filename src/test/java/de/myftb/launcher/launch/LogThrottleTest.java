@@ -0,0 +1,113 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class LogThrottleTest {
+    private final List<LogLine> output = new ArrayList<>();
+
+    private void accept(LogThrottle throttle, String line) {
+        throttle.accept(LogLine.parse(line, false), this.output::add);
+    }
+
+    private List<String> getOutput() {
+        return this.output.stream().map(LogLine::getText).collect(Collectors.toList());
+    }
+
+    @Test
+    public void collapsesRepeatedLines() {
+        LogThrottle throttle = new LogThrottle("");
+        for (int i = 0; i < 5; i++) {
+            this.accept(throttle, "[12:00:0" + i + "] [Client thread/INFO] [FML]: Tick");
+        }
+        this.accept(throttle, "[12:00:06] [Client thread/INFO] [FML]: Done");
+
+        assertEquals(3, this.output.size());
+        assertEquals("[12:00:00] [Client thread/INFO] [FML]: Tick", this.output.get(0).getText());
+        assertEquals("… vorherige Zeile 4 mal wiederholt", this.output.get(1).getText());
+        assertEquals("[12:00:06] [Client thread/INFO] [FML]: Done", this.output.get(2).getText());
+        assertEquals(4, throttle.getDroppedLines());
+    }
+
+    @Test
+    public void flushEmitsPendingRepeats() {
+        LogThrottle throttle = new LogThrottle("");
+        this.accept(throttle, "Loading");
+        this.accept(throttle, "Loading");
+        throttle.flush(this.output::add);
+
+        assertEquals(2, this.output.size());
+        assertEquals("… vorherige Zeile 1 mal wiederholt", this.output.get(1).getText());
+    }
+
+    @Test
+    public void limitsLoggerToTwiceItsRate() {
+        LogThrottle throttle = new LogThrottle("FML=1");
+        for (int i = 0; i < 5; i++) {
+            this.accept(throttle, "[12:00:00] [Client thread/INFO] [FML]: Line " + i);
+        }
+
+        assertEquals(2, this.output.size());
+        assertEquals(3, throttle.getDroppedLines());
+        assertEquals(3 * "[12:00:00] [Client thread/INFO] [FML]: Line 0\n".length(), throttle.getDroppedBytes());
+    }
+
+    @Test
+    public void neverDropsErrors() {
+        LogThrottle throttle = new LogThrottle("FML=1");
+        for (int i = 0; i < 5; i++) {
+            this.accept(throttle, "[12:00:00] [Client thread/ERROR] [FML]: Error " + i);
+        }
+
+        assertEquals(5, this.output.size());
+        assertEquals(0, throttle.getDroppedLines());
+    }
+
+    @Test
+    public void appliesDefaultRateToOtherLoggers() {
+        LogThrottle throttle = new LogThrottle("FML=0, * = 1");
+        for (int i = 0; i < 5; i++) {
+            this.accept(throttle, "[12:00:00] [Client thread/INFO] [FML]: Line " + i);
+            this.accept(throttle, "[12:00:00] [Client thread/INFO] [Other]: Line " + i);
+            this.accept(throttle, "Unstructured " + i);
+        }
+
+        assertEquals(5, this.getOutput().stream().filter(line -> line.contains("[FML]")).count());
+        assertEquals(2, this.getOutput().stream().filter(line -> line.contains("[Other]")).count());
+        assertEquals(2, this.getOutput().stream().filter(line -> line.startsWith("Unstructured")).count());
+    }
+
+    @Test
+    public void ignoresInvalidConfiguration() {
+        LogThrottle throttle = new LogThrottle("FML=abc");
+        for (int i = 0; i < 5; i++) {
+            this.accept(throttle, "[12:00:00] [Client thread/INFO] [FML]: Line " + i);
+        }
+
+        assertEquals(5, this.output.size());
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * MyFTBLauncher
+ * Copyright (C) 2020 MyFTB <https://myftb.de>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.myftb.launcher.launch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import de.myftb.launcher.models.launcher.ModInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ModIndexTest {
+
+    private static List<ModInfo> readModsToml(String toml, String implementationVersion) throws IOException {
+        List<ModInfo> mods = new ArrayList<>();
+        ModIndex.readModsToml(new BufferedReader(new StringReader(toml)), implementationVersion, mods);
+        return mods;
+    }
+
+    private static List<ModInfo> readMcmodInfo(String json, String implementationVersion) {
+        List<ModInfo> mods = new ArrayList<>();
+        ModIndex.readMcmodInfo(new Gson().fromJson(json, JsonElement.class), implementationVersion, mods);
+        return mods;
+    }
+
+    @Test
+    public void readsModsToml() throws IOException {
+        List<ModInfo> mods = ModIndexTest.readModsToml(String.join("\n",
+                "modLoader=\"javafml\" # Kommentar",
+                "loaderVersion=\"[31,)\"",
+                "",
+                "[[mods]]",
+                "modId=\"examplemod\"",
+                "version=\"${file.jarVersion}\"",
+                "displayName='Example Mod'",
+                "description='''",
+                "modId=\"fake\"",
+                "[[mods]]",
+                "'''",
+                "",
+                "[[dependencies.examplemod]]",
+                "    modId=\"forge\"",
+                "    mandatory=true",
+                "    versionRange=\"[31,)\"",
+                "[[dependencies.examplemod]]",
+                "    modId=\"jei\"",
+                "    mandatory=false",
+                "[[dependencies.othermod]]",
+                "    modId=\"minecraft\"",
+                "    mandatory=true"
+        ), "1.2.3");
+
+        assertEquals(1, mods.size());
+        ModInfo mod = mods.get(0);
+        assertEquals("examplemod", mod.getId());
+        assertEquals("Example Mod", mod.getName());
+        assertEquals("1.2.3", mod.getVersion());
+        assertEquals("forge", mod.getLoader());
+        assertEquals(Collections.singletonList("forge"), mod.getDependencies());
+    }
+
+    @Test
+    public void readsMultipleModsFromToml() throws IOException {
+        List<ModInfo> mods = ModIndexTest.readModsToml(String.join("\n",
+                "[[mods]]",
+                "modId = \"first\"",
+                "version = \"1.0\"",
+                "[[mods]]",
+                "modId = \"second\"",
+                "description = \"\"\"Einzeilig\"\"\"",
+                "version = 2.0 # ohne Anführungszeichen"
+        ), null);
+
+        assertEquals(2, mods.size());
+        assertEquals("first", mods.get(0).getId());
+        assertEquals("1.0", mods.get(0).getVersion());
+        assertEquals("second", mods.get(1).getId());
+        assertEquals("2.0", mods.get(1).getVersion());
+        assertNull(mods.get(1).getName());
+    }
+
+    @Test
+    public void readsMcmodInfoArray() {
+        List<ModInfo> mods = ModIndexTest.readMcmodInfo("[{\"modid\": \"examplemod\", \"name\": \"Example Mod\", \"version\": \"${version}\","
+                + " \"requiredMods\": [\"Forge@[14.23,)\", \"baubles\"], \"dependencies\": [\"baubles\", \"jei@[4.0,)\"]}]", "1.12.2-3.0");
+
+        assertEquals(1, mods.size());
+        ModInfo mod = mods.get(0);
+        assertEquals("examplemod", mod.getId());
+        assertEquals("Example Mod", mod.getName());
+        assertEquals("1.12.2-3.0", mod.getVersion());
+        assertEquals("forge", mod.getLoader());
+        assertEquals(Arrays.asList("Forge", "baubles", "jei"), mod.getDependencies());
+    }
+
+    @Test
+    public void readsMcmodInfoModList() {
+        List<ModInfo> mods = ModIndexTest.readMcmodInfo("{\"modListVersion\": 2, \"modList\": [{\"modid\": \"a\", \"version\": \"1.0\"},"
+                + " \"ungültig\", {\"modid\": \"b\"}]}", null);
+
+        assertEquals(2, mods.size());
+        assertEquals("a", mods.get(0).getId());
+        assertEquals("1.0", mods.get(0).getVersion());
+        assertEquals("b", mods.get(1).getId());
+        assertNull(mods.get(1).getVersion());
+        assertTrue(mods.get(1).getDependencies().isEmpty());
+    }
+
+    @Test
+    public void ignoresUnknownMcmodInfo() {
+        assertTrue(ModIndexTest.readMcmodInfo("{\"modid\": \"a\"}", null).isEmpty());
+        assertTrue(ModIndexTest.readMcmodInfo("\"text\"", null).isEmpty());
+    }
+
+}